@@ -0,0 +1,283 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz;
+
+import bhs.devilbotz.subsystems.DriveTrain;
+import bhs.devilbotz.subsystems.Shooter;
+import bhs.devilbotz.utils.CommandTracer;
+import bhs.devilbotz.utils.SimParameters;
+import bhs.devilbotz.utils.log.BinaryLog;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.JoystickSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Runs one autonomous routine in the desktop simulator without a GUI or driver station, as fast as the
+ * desktop can go, and measures how long it took. The routine tests and {@link SimSweep} use it.
+ * <p>
+ * Simulated time is paused and stepped one loop period before every loop, the same way {@link ReplayRunner}
+ * does it. The robot is held disabled for a moment so the sensors settle, then enabled in autonomous until
+ * the routine ends. The run fails if the routine is still running after the time limit.
+ * <p>
+ * The routine named {@value #DRIVE_STEP} instead pushes both joysticks fully forward in teleop, to measure
+ * how the default DriveCommand responds.
+ * <p>
+ * The result is also printed as a single line starting with {@value #RESULT_PREFIX}, for SimSweep:
+ * whether it finished, the time, and an error. For autonomous routines the time is the routine length and
+ * the error is the RMS flywheel error in RPM while the shooter PID is enabled. For the drive step the time
+ * is how long the robot took to reach 90% of its final speed and the error is how far it turned in degrees.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+final class AutoSimRunner {
+    static final String DRIVE_STEP = "Drive Step";
+    static final String RESULT_PREFIX = "SimResult";
+
+    // The length of the autonomous period
+    static final double DEFAULT_TIME_LIMIT = 15.0;
+    private static final double DISABLED_TIME = 0.5;
+    private static final double DRIVE_STEP_TIME = 2.0;
+    private static final double RISE_FRACTION = 0.9;
+
+    private final Robot robot;
+    private final String autoName;
+    private final double timeLimit;
+
+    private boolean finished;
+    private double time;
+    private double error;
+    private int shots;
+
+    /**
+     * AutoSimRunner constructor
+     *
+     * @param robot the robot, after robotInit() has created its {@link RobotContainer}
+     * @param autoName the name of the routine in the auto chooser
+     * @param timeLimit the longest the routine may take, in seconds of robot time
+     *
+     * @since 1.0.6
+     */
+    AutoSimRunner(Robot robot, String autoName, double timeLimit) {
+        this.robot = robot;
+        this.autoName = autoName;
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Starts the robot code in this process and runs one routine. The HAL can only be started once,
+     * so this can only be called once per process.
+     *
+     * @param autoName the name of the routine in the auto chooser, or {@value #DRIVE_STEP}
+     * @param timeLimit the longest the routine may take, in seconds of robot time
+     *
+     * @return the finished run
+     *
+     * @since 1.0.6
+     */
+    static AutoSimRunner runHeadless(String autoName, double timeLimit) {
+        if (!HAL.initialize(500, 0)) {
+            throw new IllegalStateException("Could not start the HAL");
+        }
+        Robot robot = new Robot();
+        robot.robotInit();
+        SimParameters.checkAllRead();
+        // The runner writes the command trace itself
+        robot.setExportCommandTraceOnDisable(false);
+
+        AutoSimRunner runner = new AutoSimRunner(robot, autoName, timeLimit);
+        runner.run();
+        return runner;
+    }
+
+    /**
+     * Runs the routine and prints the result
+     *
+     * @return true if the routine finished within the time limit
+     *
+     * @since 1.0.6
+     */
+    boolean run() {
+        RobotContainer robotContainer = robot.getRobotContainer();
+        boolean driveStep = DRIVE_STEP.equals(autoName);
+        if (!driveStep && !robotContainer.selectAutonomous(autoName)) {
+            System.out.printf("No autonomous routine named \"%s\", the routines are: %s, %s%n",
+                    autoName, String.join(", ", robotContainer.getAutonomousNames()), DRIVE_STEP);
+            return false;
+        }
+
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        ReplayRunner.setDriverStationMode(false, false);
+        runFor(DISABLED_TIME);
+
+        long startNanos = System.nanoTime();
+        if (driveStep) {
+            runDriveStep(robotContainer.getDriveTrain());
+        } else {
+            runAutonomous(robotContainer.getAutonomousCommand(), robotContainer.getShooter());
+        }
+        double elapsed = (System.nanoTime() - startNanos) / 1e9;
+
+        ReplayRunner.setDriverStationMode(false, false);
+        step();
+
+        BinaryLog dataLog = robotContainer.getDataLog();
+        Path logFile = dataLog.getFile();
+        dataLog.stop();
+        writeCommandTrace(robotContainer.getLogDirectory());
+
+        if (finished) {
+            System.out.printf("%s finished in %.2f s of robot time, limit %.2f s (ran in %.2f s, %.0fx real time), log written to %s%n",
+                    autoName, time, timeLimit, elapsed, time / elapsed, logFile);
+        } else {
+            System.out.printf("%s did not finish within %.2f s of robot time (ran in %.2f s), log written to %s%n",
+                    autoName, timeLimit, elapsed, logFile);
+        }
+        System.out.printf("%s finished=%b time=%.4f error=%.4f%n", RESULT_PREFIX, finished, time, error);
+        return finished;
+    }
+
+    /**
+     * Gets whether the routine finished within the time limit
+     *
+     * @return true if it finished
+     *
+     * @since 1.0.6
+     */
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Gets the time the routine took
+     *
+     * @return the time in seconds of robot time
+     *
+     * @since 1.0.6
+     */
+    double getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the error measured during the routine
+     *
+     * @return the error, see the class description for its units
+     *
+     * @since 1.0.6
+     */
+    double getError() {
+        return error;
+    }
+
+    /**
+     * Gets how many shots the shooter control loop counted during the routine
+     *
+     * @return the shot count, 0 for the drive step
+     *
+     * @since 1.0.6
+     */
+    int getShotCount() {
+        return shots;
+    }
+
+    private void runAutonomous(Command command, Shooter shooter) {
+        ReplayRunner.setDriverStationMode(true, true);
+        double startTime = Timer.getFPGATimestamp();
+        int shotsAtStart = shooter.getShotCount();
+        double squaredErrorSum = 0;
+        int errorSamples = 0;
+
+        step();
+        while (command.isScheduled() && Timer.getFPGATimestamp() - startTime < timeLimit) {
+            step();
+            if (shooter.PIDEnabled) {
+                double shooterError = shooter.getSetPoint() - shooter.getVelocity();
+                squaredErrorSum += shooterError * shooterError;
+                errorSamples++;
+            }
+        }
+
+        finished = !command.isScheduled();
+        time = Timer.getFPGATimestamp() - startTime;
+        error = errorSamples == 0 ? 0 : Math.sqrt(squaredErrorSum / errorSamples);
+        shots = shooter.getShotCount() - shotsAtStart;
+    }
+
+    private void runDriveStep(DriveTrain drive) {
+        JoystickSim leftStick = new JoystickSim(Constants.JOYSTICK);
+        JoystickSim rightStick = new JoystickSim(Constants.JOYSTICK_TWO);
+
+        ReplayRunner.setDriverStationMode(true, false);
+        double startTime = Timer.getFPGATimestamp();
+        double startHeading = drive.getAngle().getDegrees();
+
+        // Forward is negative Y
+        leftStick.setY(-1);
+        rightStick.setY(-1);
+        DriverStationSim.notifyNewData();
+
+        double[] times = new double[(int) Math.ceil(DRIVE_STEP_TIME / robot.getPeriod()) + 1];
+        double[] speeds = new double[times.length];
+        int samples = 0;
+        while (samples < times.length && Timer.getFPGATimestamp() - startTime < DRIVE_STEP_TIME) {
+            step();
+            times[samples] = Timer.getFPGATimestamp() - startTime;
+            speeds[samples] = Math.abs(drive.getLeftVelocity() + drive.getRightVelocity()) / 2;
+            samples++;
+        }
+
+        leftStick.setY(0);
+        rightStick.setY(0);
+        DriverStationSim.notifyNewData();
+
+        finished = false;
+        time = DRIVE_STEP_TIME;
+        double finalSpeed = samples == 0 ? 0 : speeds[samples - 1];
+        for (int i = 0; i < samples; i++) {
+            if (finalSpeed > 0 && speeds[i] >= RISE_FRACTION * finalSpeed) {
+                finished = true;
+                time = times[i];
+                break;
+            }
+        }
+        error = Math.abs(drive.getAngle().getDegrees() - startHeading);
+    }
+
+    private void writeCommandTrace(Path directory) {
+        try {
+            System.out.println("Command trace written to " + CommandTracer.write(directory));
+        } catch (IOException e) {
+            System.out.println("Could not write the command trace: " + e.getMessage());
+        }
+    }
+
+    private void runFor(double seconds) {
+        double endTime = Timer.getFPGATimestamp() + seconds;
+        while (Timer.getFPGATimestamp() < endTime) {
+            step();
+        }
+    }
+
+    private void step() {
+        SimHooks.stepTiming(robot.getPeriod());
+        robot.loopFunc();
+    }
+}
@@ -30,12 +30,112 @@ public final class Constants {
 
     public static final int INTAKE_BUTTON = 4;
 
+    public static final class DriveConstants {
+        // Drive the wheels at a velocity in teleop instead of a percent output.
+        // Leave this off until the drivetrain has been characterized, the feedforward gains are placeholders.
+        public static final boolean VELOCITY_DRIVE = false;
+        public static final double MAX_TELEOP_VELOCITY_METERS_PER_SECOND = 3.0;
+        public static final double MAX_TELEOP_ACCELERATION_METERS_PER_SECOND_SQUARED = 4.0;
+        public static final double JOYSTICK_DEADBAND = 0.02;
+
+        // Drivetrain physics for simulation, two CIMs per side
+        public static final double GEARING = 10.71;
+        public static final double MASS_KG = 54;
+        public static final double MOMENT_OF_INERTIA_KG_METERS_SQUARED = 6.0;
+
+        // Talon SRX voltage compensation, so an output means the same voltage at any battery level.
+        // Only the closed loop modes use it, percent output drives stay uncompensated.
+        public static final double VOLTAGE_COMPENSATION_VOLTS = 12.0;
+    }
+
     // Auto Constants
     public static final class AutoConstants {
         public static final double WHEEL_DIAMETER_INCHES = 6;
+        // Talon SRX quadrature encoders report 4096 ticks per wheel revolution
+        public static final double METERS_PER_TICK = WHEEL_DIAMETER_INCHES * 0.0254 * Math.PI / 4096;
+        public static final double TRACK_WIDTH_METERS = 0.61;
+
+        // Path following limits
+        public static final double MAX_VELOCITY_METERS_PER_SECOND = 2.5;
+        public static final double MAX_ACCELERATION_METERS_PER_SECOND_SQUARED = 2.5;
+
+        // Drive characterization feedforward
+        public static final double KS_VOLTS = 0.9;
+        public static final double KV_VOLT_SECONDS_PER_METER = 2.8;
+        public static final double KA_VOLT_SECONDS_SQUARED_PER_METER = 0.4;
+
+        // Talon SRX velocity loop gain, in Talon units
+        public static final double VELOCITY_KP = 0.1;
+
+        // Talon SRX motion profile executor, position loop in slot 1
+        public static final int PROFILE_SLOT = 1;
+        public static final double PROFILE_KP = 0.4;
+        public static final int PROFILE_POINT_PERIOD_MS = 10;
+        public static final int PROFILE_MIN_BUFFERED_POINTS = 20;
+
+        // Talon SRX Motion Magic, position loop in slot 2. The kF matches the drive characterization kV.
+        public static final int MOTION_MAGIC_SLOT = 2;
+        public static final double MOTION_MAGIC_KP = 0.3;
+        public static final double MOTION_MAGIC_KF = KV_VOLT_SECONDS_PER_METER * METERS_PER_TICK * 10 / 12.0 * 1023;
+        // Heading correction added to each side, in percent output per degree of heading error
+        public static final double HEADING_KP = 0.01;
+        public static final double MAX_HEADING_CORRECTION = 0.2;
+        // A move is done once it has been inside the tolerance for the settle time
+        public static final double POSITION_TOLERANCE_INCHES = 0.5;
+        public static final double VELOCITY_TOLERANCE_INCHES_PER_SECOND = 2.0;
+        public static final double SETTLE_TIME = 0.1;
+
+        // Turn to angle, the controller output is a turn rate in degrees per second
+        public static final double TURN_KP = 4.0;
+        public static final double TURN_KD = 0.1;
+        public static final double MAX_TURN_RATE_DEGREES_PER_SECOND = 270;
+        public static final double MAX_TURN_ACCELERATION_DEGREES_PER_SECOND_SQUARED = 540;
+        public static final double TURN_TOLERANCE_DEGREES = 1.5;
+        public static final double TURN_RATE_TOLERANCE_DEGREES_PER_SECOND = 5.0;
+
+        // RAMSETE gains, the WPILib defaults
+        public static final double RAMSETE_B = 2.0;
+        public static final double RAMSETE_ZETA = 0.7;
+    }
+
+    public static final class TransferConstants {
+        // Distances are in transfer encoder units, see TransferIOReal
+        public static final double INDEX_DISTANCE = 8;
+        public static final double INDEX_OUTPUT = 0.7;
+        public static final double INDEX_TIMEOUT = 2.0;
+
+        // A ball this far past where it reached the color sensor is staged just short of the flywheel
+        public static final double STAGE_DISTANCE = 10;
+
+        // Hold the indexed ball in place with a small proportional output
+        public static final double HOLD_KP = 0.1;
+        public static final double HOLD_MAX_OUTPUT = 0.3;
+        public static final double HOLD_TOLERANCE = 0.5;
+
+        // A jam is the encoder moving slower than this while indexing, for longer than the jam time
+        public static final double JAM_RATE = 2;
+        public static final double JAM_TIME = 0.25;
+        public static final double UNJAM_OUTPUT = -0.5;
+        public static final double UNJAM_TIME = 0.2;
     }
 
     public static final class ShooterConstants {
+        // Flywheel model, a single NEO driving the wheel directly
+        public static final double GEARING = 1.0;
+        public static final double MOMENT_OF_INERTIA_KG_METERS_SQUARED = 0.004;
+
+        // Use the state space controller instead of the SPARK MAX velocity PID.
+        // Leave this off until the flywheel has been characterized, the moment of inertia is a guess.
+        public static final boolean STATE_SPACE_CONTROL = false;
+
+        // State space tuning, in radians per second and volts
+        public static final double MODEL_STD_DEV = 3.0;
+        public static final double MEASUREMENT_STD_DEV = 0.5;
+        public static final double VELOCITY_ERROR_TOLERANCE = 8.0;
+        public static final double CONTROL_EFFORT_TOLERANCE = 12.0;
 
+        // Ball exit model for simulation, 2022 cargo leaving a 4 inch wheel
+        public static final double WHEEL_RADIUS_METERS = 0.0508;
+        public static final double BALL_MASS_KG = 0.27;
     }
 }
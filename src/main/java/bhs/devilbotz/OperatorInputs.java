@@ -0,0 +1,128 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz;
+
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
+import bhs.devilbotz.utils.log.LoggableInputs;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Joystick;
+import edu.wpi.first.wpilibj2.command.button.Button;
+
+/**
+ * Snapshot of the driver joysticks, read once at the start of every loop.
+ * Commands and button bindings read from here instead of polling the {@link Joystick}s directly.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class OperatorInputs implements LoggableInputs {
+    private final Joystick[] joysticks;
+
+    private final double[] x;
+    private final double[] y;
+    private final int[] buttons;
+
+    private double timestamp;
+
+    /**
+     * OperatorInputs constructor
+     *
+     * @param joysticks the joysticks to read, indexed by their port
+     *
+     * @since 1.0.6
+     */
+    public OperatorInputs(Joystick... joysticks) {
+        this.joysticks = joysticks;
+        x = new double[joysticks.length];
+        y = new double[joysticks.length];
+        buttons = new int[joysticks.length];
+    }
+
+    /**
+     * Reads every joystick
+     *
+     * @param timestamp the FPGA timestamp of the snapshot in seconds
+     *
+     * @since 1.0.6
+     */
+    public void update(double timestamp) {
+        this.timestamp = timestamp;
+        for (int i = 0; i < joysticks.length; i++) {
+            x[i] = joysticks[i].getX();
+            y[i] = joysticks[i].getY();
+            buttons[i] = DriverStation.getStickButtons(joysticks[i].getPort());
+        }
+    }
+
+    public double getX(int port) {
+        return x[port];
+    }
+
+    public double getY(int port) {
+        return y[port];
+    }
+
+    /**
+     * Gets a button from the snapshot
+     *
+     * @param port the joystick port
+     * @param button the button number, starting at 1
+     *
+     * @return whether the button was held when the snapshot was taken
+     *
+     * @since 1.0.6
+     */
+    public boolean getRawButton(int port, int button) {
+        return (buttons[port] & (1 << (button - 1))) != 0;
+    }
+
+    /**
+     * Creates a {@link Button} that is triggered from the snapshot
+     *
+     * @param port the joystick port
+     * @param button the button number, starting at 1
+     *
+     * @return the button
+     *
+     * @since 1.0.6
+     */
+    public Button button(int port, int button) {
+        return new Button(() -> getRawButton(port, button));
+    }
+
+    @Override
+    public void toLog(BinaryLog log, String prefix) {
+        for (int i = 0; i < joysticks.length; i++) {
+            final int port = i;
+            log.addFloat(prefix + port + "/X", () -> x[port]);
+            log.addFloat(prefix + port + "/Y", () -> y[port]);
+            log.addInt(prefix + port + "/Buttons", () -> buttons[port]);
+        }
+    }
+
+    @Override
+    public void fromLog(LogReplay replay, String prefix) {
+        replay.bindTimestamp(value -> timestamp = value);
+        for (int i = 0; i < joysticks.length; i++) {
+            final int port = i;
+            replay.bindFloat(prefix + port + "/X", value -> x[port] = value);
+            replay.bindFloat(prefix + port + "/Y", value -> y[port] = value);
+            replay.bindInt(prefix + port + "/Buttons", value -> buttons[port] = value);
+        }
+    }
+
+    public double getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,125 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz;
+
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReader;
+import bhs.devilbotz.utils.log.LogReplay;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+import java.nio.file.Path;
+
+/**
+ * Runs the robot code against a recorded match log in the desktop simulator.
+ * <p>
+ * Simulated time is paused and stepped by the recorded loop period before every loop, so the robot code runs
+ * in lock step with the log as fast as the desktop can go. The driver station mode follows the recorded mode.
+ * Every sensor and joystick value comes from the log, and the outputs the code produces are recorded to a new
+ * log under logs/replay.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+final class ReplayRunner {
+    private final Robot robot;
+    private final LogReplay replay;
+
+    private boolean enabled = false;
+    private boolean autonomous = false;
+
+    /**
+     * ReplayRunner constructor
+     *
+     * @param robot the robot, after robotInit() has created its {@link RobotContainer}
+     * @param replay the replay the robot container was created with
+     *
+     * @since 1.0.6
+     */
+    ReplayRunner(Robot robot, LogReplay replay) {
+        this.robot = robot;
+        this.replay = replay;
+    }
+
+    /**
+     * Replays every frame of the log
+     *
+     * @since 1.0.6
+     */
+    void run() {
+        LogReader reader = replay.getReader();
+        int enabledSignal = reader.indexOf("DriverStation/Enabled");
+        int autonomousSignal = reader.indexOf("DriverStation/Autonomous");
+
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        setMode(false, false);
+
+        long startNanos = System.nanoTime();
+        double firstTimestamp = Double.NaN;
+        double lastTimestamp = Double.NaN;
+        while (replay.advance()) {
+            int frame = replay.getFrame();
+            boolean frameEnabled = enabledSignal >= 0 && reader.getBoolean(frame, enabledSignal);
+            boolean frameAutonomous = autonomousSignal >= 0 && reader.getBoolean(frame, autonomousSignal);
+            if (frameEnabled != enabled || frameAutonomous != autonomous) {
+                setMode(frameEnabled, frameAutonomous);
+            }
+
+            double timestamp = replay.getTimestamp();
+            if (Double.isNaN(firstTimestamp)) {
+                firstTimestamp = timestamp;
+            } else {
+                SimHooks.stepTiming(timestamp - lastTimestamp);
+            }
+            lastTimestamp = timestamp;
+
+            robot.loopFunc();
+        }
+
+        double elapsed = (System.nanoTime() - startNanos) / 1e9;
+        BinaryLog outputLog = robot.getRobotContainer().getDataLog();
+        Path outputFile = outputLog.getFile();
+        outputLog.stop();
+        System.out.printf("Replayed %d frames (%.1f s of robot time) in %.2f s, outputs written to %s%n",
+                reader.getFrameCount(), lastTimestamp - firstTimestamp, elapsed, outputFile);
+    }
+
+    private void setMode(boolean enabled, boolean autonomous) {
+        this.enabled = enabled;
+        this.autonomous = autonomous;
+        setDriverStationMode(enabled, autonomous);
+    }
+
+    /**
+     * Changes the simulated driver station mode and waits for the robot code to see it
+     *
+     * @param enabled whether the robot is enabled
+     * @param autonomous whether the robot is in autonomous
+     *
+     * @since 1.0.6
+     */
+    static void setDriverStationMode(boolean enabled, boolean autonomous) {
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.setAutonomous(autonomous);
+        DriverStationSim.notifyNewData();
+
+        // The driver station cache is refreshed on its own thread, wait for it to see the new mode
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while ((DriverStation.isEnabled() != enabled || DriverStation.isAutonomous() != autonomous)
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
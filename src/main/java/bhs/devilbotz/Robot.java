@@ -15,6 +15,11 @@ import bhs.devilbotz.commands.transfer.TransferIn;
 import bhs.devilbotz.subsystems.DriveTrain;
 import bhs.devilbotz.subsystems.Intake;
 import bhs.devilbotz.subsystems.Shooter;
+import bhs.devilbotz.utils.Telemetry;
+import bhs.devilbotz.utils.log.LogReader;
+import bhs.devilbotz.utils.log.LogReplay;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.util.WPILibVersion;
 import edu.wpi.first.wpilibj2.command.Command;
@@ -22,6 +27,9 @@ import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import io.github.oblarg.oblog.Logger;
 import io.github.oblarg.oblog.annotations.Log;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 /**
  * This is the main robot class.
  * It is automatically ran when the robot is started, and the correct methods are called.
@@ -33,10 +41,10 @@ import io.github.oblarg.oblog.annotations.Log;
 public class Robot extends TimedRobot {
     private Command autonomousCommand;
 
-    private double time;
 
     private RobotContainer robotContainer;
     private Shooter shooter;
+    private boolean exportCommandTraceOnDisable = true;
 
     @Log
     String wpilibVersion = WPILibVersion.Version;
@@ -48,14 +56,67 @@ public class Robot extends TimedRobot {
     @Override
     public void robotInit() {
         // Instantiate the RobotContainer.
-        robotContainer = new RobotContainer();
+        LogReplay replay = openReplay();
+        robotContainer = new RobotContainer(replay);
         shooter = robotContainer.getShooter();
         Logger.configureLoggingAndConfig(this, false);
-        
+
+        // Replay runs the whole log here, then exits
+        if (replay != null) {
+            new ReplayRunner(this, replay).run();
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Opens the log named by the REPLAY_LOG environment variable. Replay is only available in simulation.
+     *
+     * @return the replay, or null to run normally
+     *
+     * @since 1.0.6
+     */
+    private LogReplay openReplay() {
+        String replayLog = System.getenv("REPLAY_LOG");
+        if (RobotBase.isReal() || replayLog == null || replayLog.isEmpty()) {
+            return null;
+        }
+        try {
+            return new LogReplay(new LogReader(Paths.get(replayLog)));
+        } catch (IOException e) {
+            DriverStation.reportError("Could not open replay log " + replayLog + ": " + e.getMessage(), e.getStackTrace());
+            return null;
+        }
+    }
+
+    RobotContainer getRobotContainer() {
+        return robotContainer;
+    }
+
+    /**
+     * Sets whether the command trace is written each time the robot is disabled
+     *
+     * @param export false when something else writes the trace
+     *
+     * @since 1.0.6
+     */
+    void setExportCommandTraceOnDisable(boolean export) {
+        exportCommandTraceOnDisable = export;
     }
     
 
 
+    /**
+     * Runs one iteration of the robot loop.
+     * Every sensor is read once up front so the mode, command and subsystem code all see the same values.
+     *
+     * @since 1.0.6
+     */
+    @Override
+    protected void loopFunc() {
+        robotContainer.updateInputs();
+        super.loopFunc();
+    }
+
     /**
      * This method is called every robot packet, no matter the mode.
      * This is used for diagnostic purposes.
@@ -68,18 +129,26 @@ public class Robot extends TimedRobot {
     @Override
     public void robotPeriodic() {
         // Runs the Scheduler.
+        robotContainer.getLoopProfiler().startLoop();
         CommandScheduler.getInstance().run();
+        robotContainer.getLoopProfiler().endLoop();
         Logger.updateEntries();
+        Telemetry.flush();
+        robotContainer.logFrame();
     }
 
     /**
      * This method is called once when the robot is disabled.
+     * The command timeline so far is written to a trace file next to the match log.
      *
      * @since 1.0.0
      */
     @Override
     public void disabledInit() {
         shooter.setIsAuto(false);
+        if (exportCommandTraceOnDisable) {
+            robotContainer.exportCommandTrace();
+        }
     }
 
     /**
@@ -136,17 +205,9 @@ public class Robot extends TimedRobot {
     @Override
     public void teleopPeriodic() {
         if (!robotContainer.getShooter().isAuto() && !robotContainer.getTransfer().isIntakeOut()) {
-            if (robotContainer.getTransfer().ballPresent()) {
-                if (time <= 100) {
-                    robotContainer.getTransfer().set(0.7);
-                } else {
-                    robotContainer.getTransfer().stop();
-                }
-                time += 1;
-            } else {
-                robotContainer.getTransfer().stop();
-                time = 0;
-            }
+            robotContainer.getTransfer().updateIndexer();
+        } else {
+            robotContainer.getTransfer().resetIndexer();
         }
     }
 
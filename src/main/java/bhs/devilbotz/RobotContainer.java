@@ -12,6 +12,8 @@
 package bhs.devilbotz;
 
 import bhs.devilbotz.commands.DriveCommand;
+import bhs.devilbotz.commands.autonomous.drive.FollowPath;
+import bhs.devilbotz.commands.autonomous.drive.FollowPathProfile;
 import bhs.devilbotz.commands.autonomous.drive.driverassist.DefenseModeDisable;
 import bhs.devilbotz.commands.autonomous.drive.driverassist.DefenseModeEnable;
 import bhs.devilbotz.commands.autonomous.drive.driverassist.ShootTwoBalls;
@@ -32,14 +34,27 @@ import bhs.devilbotz.commands.transfer.TransferIn;
 import bhs.devilbotz.commands.transfer.TransferOut;
 import bhs.devilbotz.commands.transfer.TransferStop;
 import bhs.devilbotz.subsystems.*;
+import bhs.devilbotz.subsystems.io.*;
+import bhs.devilbotz.utils.CommandTracer;
+import bhs.devilbotz.utils.LoopProfiler;
+import bhs.devilbotz.utils.RobotClock;
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Joystick;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
-import edu.wpi.first.wpilibj2.command.button.JoystickButton;
 import io.github.oblarg.oblog.Logger;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 
 /**
  * The declaration class for the robot.
@@ -51,15 +66,17 @@ import io.github.oblarg.oblog.Logger;
  */
 public class RobotContainer {
     // The robot's subsystems and commands are defined
-    private final DriveTrain driveTrain = new DriveTrain();
-    private final Intake intake = new Intake();
-    private final Transfer transfer = new Transfer();
-    private final Shooter shooter = new Shooter();
+    private final DriveTrain driveTrain;
+    private final Intake intake;
+    private final Transfer transfer;
+    private final Shooter shooter;
     private final IntakeArm intakeArm = new IntakeArm();
+    private final ShootTwoBalls shootTwoBalls;
 
     // Joysticks
     private final Joystick joy = new Joystick(Constants.JOYSTICK);
     private final Joystick joy_two = new Joystick(Constants.JOYSTICK_TWO);
+    private final OperatorInputs operatorInputs = new OperatorInputs(joy, joy_two);
 
     // Camera system
     private final CameraSystem cameraSystem = new CameraSystem();
@@ -67,6 +84,17 @@ public class RobotContainer {
 
     // Autonomous chooser
     private final SendableChooser<Command> autonomousChooser = new SendableChooser<>();
+    private final Map<String, Command> autonomousOptions = new LinkedHashMap<>();
+    private Command autonomousOverride;
+
+    // Loop timing
+    private final LoopProfiler loopProfiler = new LoopProfiler();
+
+    // Match log
+    private final LogReplay replay;
+    private final Path logDirectory;
+    private final BinaryLog dataLog;
+    private double inputsTimestamp;
 
 
     /**
@@ -76,6 +104,52 @@ public class RobotContainer {
      * @since 1.0.0
      */
     public RobotContainer() {
+        this(null);
+    }
+
+    /**
+     * The container for the robot, with its sensors fed from a recorded log
+     *
+     * @param replay the log to replay, or null to read the real sensors
+     *
+     * @since 1.0.6
+     */
+    public RobotContainer(LogReplay replay) {
+        this.replay = replay;
+
+        // Pick the hardware: none when replaying, the real devices on the robot, and models in simulation
+        if (replay != null) {
+            driveTrain = new DriveTrain(new DriveTrainIO() {});
+            intake = new Intake(new IntakeIO() {});
+            transfer = new Transfer(new TransferIO() {});
+            shooter = new Shooter(new ShooterIO() {});
+        } else if (RobotBase.isReal()) {
+            driveTrain = new DriveTrain(new DriveTrainIOReal());
+            intake = new Intake(new IntakeIOReal());
+            transfer = new Transfer(new TransferIOReal());
+            shooter = new Shooter(new ShooterIOReal());
+        } else {
+            driveTrain = new DriveTrain(new DriveTrainIOTalonSim());
+            intake = new Intake(new IntakeIOSim());
+            ShooterIOSparkSim shooterSim = new ShooterIOSparkSim();
+            shooter = new Shooter(shooterSim);
+            TransferIODeviceSim transferSim = new TransferIODeviceSim();
+            transferSim.setShotListener(shooterSim::shootBall);
+            transfer = new Transfer(transferSim);
+        }
+
+        if (replay != null) {
+            logDirectory = Paths.get("logs", "replay");
+        } else {
+            // Parallel simulation runs each log to their own directory
+            logDirectory = RobotBase.isReal() ? Paths.get("/home/lvuser/logs")
+                    : Paths.get(System.getenv().getOrDefault("SIM_LOG_DIR", "logs"));
+        }
+        dataLog = new BinaryLog(logDirectory);
+
+        // One instance for the button and simulation runs, so its dashboard keys are only registered once
+        shootTwoBalls = new ShootTwoBalls(driveTrain, transfer, shooter);
+
         // Configure the button bindings
         configureButtonBindings();
         configureShuffleboard();
@@ -90,6 +164,17 @@ public class RobotContainer {
         SmartDashboard.putData("IntakeArm", intakeArm);
         SmartDashboard.putData("DriveTrain", driveTrain);
 
+        // Must run after the default commands and button bindings are set up
+        loopProfiler.install(driveTrain, intake, transfer, shooter, intakeArm, cameraSystem, powerDistributionPanel);
+        CommandTracer.install();
+
+        configureDataLog();
+        if (replay != null) {
+            configureReplay();
+        } else {
+            // When replaying, the shooter loop runs from the scheduler on the recorded inputs instead
+            shooter.startControlLoop();
+        }
 
         // The first argument is the root container
         // The second argument is whether logging and config should be given separate tabs
@@ -103,53 +188,53 @@ public class RobotContainer {
      */
     private void configureButtonBindings() {
         driveTrain.setDefaultCommand(new DriveCommand(driveTrain,
-                () -> -joy.getY(),
-                () -> -joy_two.getY()
+                () -> -operatorInputs.getY(Constants.JOYSTICK),
+                () -> -operatorInputs.getY(Constants.JOYSTICK_TWO)
         ));
 
-        new JoystickButton(joy_two, Constants.CAMERA_BUTTON)
+        operatorInputs.button(Constants.JOYSTICK_TWO, Constants.CAMERA_BUTTON)
                 .whenPressed(new CameraToggle(cameraSystem));
 
-        new JoystickButton(joy_two, Constants.INTAKE_BUTTON)
+        operatorInputs.button(Constants.JOYSTICK_TWO, Constants.INTAKE_BUTTON)
                 .toggleWhenPressed(new IntakeInToggle(intake, intakeArm));
 
-        new JoystickButton(joy_two, 3)
+        operatorInputs.button(Constants.JOYSTICK_TWO, 3)
                 .whileHeld(new TransferIn(transfer))
                 .whenReleased(new TransferStop(transfer));
 
-        new JoystickButton(joy, 3)
+        operatorInputs.button(Constants.JOYSTICK, 3)
                 .whileHeld(new TransferOut(transfer))
                 .whenReleased(new TransferStop(transfer));
 
-        new JoystickButton(joy, 8)
+        operatorInputs.button(Constants.JOYSTICK, 8)
                 .whileHeld(new ShooterForward(shooter, 1))
                 .whenReleased(new ShooterStop(shooter, transfer));
 
-        new JoystickButton(joy_two, 5)
+        operatorInputs.button(Constants.JOYSTICK_TWO, 5)
                 .toggleWhenPressed(new ShooterForwardPID(shooter, 4000));
 
-        new JoystickButton(joy, 5)
+        operatorInputs.button(Constants.JOYSTICK, 5)
                 .whileHeld(new ShooterReverse(shooter, 4000));
 
-        new JoystickButton(joy_two, 6)
+        operatorInputs.button(Constants.JOYSTICK_TWO, 6)
                 .whileHeld(new IntakeArmUp(intakeArm));
 
-        new JoystickButton(joy_two, 7)
+        operatorInputs.button(Constants.JOYSTICK_TWO, 7)
                 .whileHeld(new IntakeArmDown(intakeArm));
 
-        new JoystickButton(joy, 4)
+        operatorInputs.button(Constants.JOYSTICK, 4)
                 .whileHeld(new IntakeArmUp(intakeArm));
 
-        new JoystickButton(joy, 2)
+        operatorInputs.button(Constants.JOYSTICK, 2)
                 .whileHeld(new IntakeArmDown(intakeArm));
 
-        new JoystickButton(joy_two, 1)
-                .whenReleased(new ShootTwoBalls(driveTrain, transfer, shooter));
+        operatorInputs.button(Constants.JOYSTICK_TWO, 1)
+                .whenReleased(shootTwoBalls);
 
-        new JoystickButton(joy, 11)
+        operatorInputs.button(Constants.JOYSTICK, 11)
                 .whenPressed(new DefenseModeEnable(driveTrain, intakeArm));
 
-        new JoystickButton(joy, 10)
+        operatorInputs.button(Constants.JOYSTICK, 10)
                 .whenPressed(new DefenseModeDisable(driveTrain, intakeArm));
 
     }
@@ -157,17 +242,111 @@ public class RobotContainer {
     private void configureShuffleboard() {
         ShootAndBackwardsAuto shootAndBackwardsAuto = new ShootAndBackwardsAuto(driveTrain, transfer, shooter);
         autonomousChooser.setDefaultOption("Shoot & Backwards Auto", shootAndBackwardsAuto);
+        autonomousOptions.put("Shoot & Backwards Auto", shootAndBackwardsAuto);
 
         Backwards backwards = new Backwards(driveTrain);
         autonomousChooser.addOption("Backwards ONLY", backwards);
+        autonomousOptions.put("Backwards ONLY", backwards);
 
         Diagnostic diagnostic = new Diagnostic(driveTrain, intake, shooter, transfer, intakeArm);
         autonomousChooser.addOption("Diagnostic", diagnostic);
+        autonomousOptions.put("Diagnostic", diagnostic);
+
+        FollowPath newPath = new FollowPath(driveTrain, "New Path", true);
+        autonomousChooser.addOption("Path: New Path", newPath);
+        autonomousOptions.put("Path: New Path", newPath);
+
+        FollowPathProfile newPathProfile = new FollowPathProfile(driveTrain, "New Path", true);
+        autonomousChooser.addOption("Path: New Path (Talon profile)", newPathProfile);
+        autonomousOptions.put("Path: New Path (Talon profile)", newPathProfile);
+
+        // Not in the chooser, the driver runs it from a button. This lets a simulation run it by name.
+        autonomousOptions.put("Shoot Two Balls", shootTwoBalls);
 
         Shuffleboard.getTab("Drive").add("Auto Chooser", autonomousChooser).withSize(2, 1).withPosition(0, 0);
     }
 
 
+    private void configureDataLog() {
+        dataLog.addBoolean("DriverStation/Enabled", DriverStation::isEnabled);
+        dataLog.addBoolean("DriverStation/Autonomous", DriverStation::isAutonomous);
+        operatorInputs.toLog(dataLog, "Joystick");
+        driveTrain.registerLogSignals(dataLog);
+        shooter.registerLogSignals(dataLog);
+        transfer.registerLogSignals(dataLog);
+        intake.registerLogSignals(dataLog);
+        intakeArm.registerLogSignals(dataLog);
+        powerDistributionPanel.registerLogSignals(dataLog);
+        dataLog.start();
+    }
+
+    private void configureReplay() {
+        operatorInputs.fromLog(replay, "Joystick");
+        driveTrain.registerReplay(replay);
+        shooter.registerReplay(replay);
+        transfer.registerReplay(replay);
+        intake.registerReplay(replay);
+        powerDistributionPanel.registerReplay(replay);
+    }
+
+    /**
+     * Takes a snapshot of every sensor and joystick.
+     * This runs once at the start of each loop, before any mode or command code.
+     * When replaying a log, the next recorded frame is used instead of the hardware.
+     *
+     * @since 1.0.6
+     */
+    public void updateInputs() {
+        if (replay != null) {
+            replay.apply();
+            inputsTimestamp = replay.getTimestamp();
+            RobotClock.update(inputsTimestamp);
+            return;
+        }
+
+        double timestamp = Timer.getFPGATimestamp();
+        driveTrain.updateInputs(timestamp);
+        transfer.updateInputs(timestamp);
+        intake.updateInputs(timestamp);
+        shooter.updateInputs(timestamp);
+        powerDistributionPanel.updateInputs(timestamp);
+        operatorInputs.update(timestamp);
+        inputsTimestamp = timestamp;
+        RobotClock.update(timestamp);
+    }
+
+    /**
+     * Records this loop's inputs and outputs to the match log.
+     * This runs once at the end of each loop, after the scheduler.
+     *
+     * @since 1.0.6
+     */
+    public void logFrame() {
+        dataLog.sample((long) (inputsTimestamp * 1e6));
+    }
+
+    /**
+     * Writes the command timeline to a Chrome trace file next to the match logs, in the background
+     *
+     * @since 1.0.6
+     */
+    public void exportCommandTrace() {
+        if (CommandTracer.hasRecords()) {
+            CommandTracer.writeInBackground(logDirectory);
+        }
+    }
+
+    /**
+     * Gets the directory the match logs and command traces are written to
+     *
+     * @return the log directory
+     *
+     * @since 1.0.6
+     */
+    public Path getLogDirectory() {
+        return logDirectory;
+    }
+
     /**
      * Passes the autonomous command to the main {@link Robot} class.
      *
@@ -175,7 +354,32 @@ public class RobotContainer {
      * @since 1.0.0
      */
     public Command getAutonomousCommand() {
-        return autonomousChooser.getSelected();
+        return autonomousOverride != null ? autonomousOverride : autonomousChooser.getSelected();
+    }
+
+    /**
+     * Runs an autonomous routine by name instead of the one picked on the dashboard
+     *
+     * @param name the name shown in the auto chooser
+     *
+     * @return false if there is no routine with that name
+     *
+     * @since 1.0.6
+     */
+    boolean selectAutonomous(String name) {
+        autonomousOverride = autonomousOptions.get(name);
+        return autonomousOverride != null;
+    }
+
+    /**
+     * Gets the names of the autonomous routines, in the order they are shown in the auto chooser
+     *
+     * @return the routine names
+     *
+     * @since 1.0.6
+     */
+    Iterable<String> getAutonomousNames() {
+        return autonomousOptions.keySet();
     }
   
     public Joystick getJoy() {
@@ -186,9 +390,13 @@ public class RobotContainer {
         return joy_two;
     }
 
-    // public DriveTrain getDriveTrain() {
-    //     return driveTrain;
-    // }
+    public OperatorInputs getOperatorInputs() {
+        return operatorInputs;
+    }
+
+    public DriveTrain getDriveTrain() {
+        return driveTrain;
+    }
 
     // public Intake getIntake() {
     //     return intake;
@@ -201,4 +409,12 @@ public class RobotContainer {
     public Shooter getShooter() {
         return shooter;
     }
+
+    public BinaryLog getDataLog() {
+        return dataLog;
+    }
+
+    public LoopProfiler getLoopProfiler() {
+        return loopProfiler;
+    }
 }
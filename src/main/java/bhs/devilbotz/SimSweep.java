@@ -0,0 +1,299 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desktop tool that tunes a routine by running it in many headless simulations at once and ranking the results.
+ * <p>
+ * The HAL simulation is global to a process, so every combination of parameters runs in its own JVM through
+ * {@link AutoSimRunner}, started with --run, with the values passed in SIM_PARAMS (see {@link bhs.devilbotz.utils.SimParameters}).
+ * One JVM runs per core by default. The runs are ranked by whether they finished, then by time, then by error,
+ * and the results are also written to build/sweep/results.csv. A run fails, and so does the sweep, if it
+ * sets a parameter the robot code never reads. Sweeping the shooter PID gains runs the shooter on the
+ * SPARK MAX PID even when the state space controller is selected.
+ * <p>
+ * Usage: SimSweep [--jobs N] [--time-limit SECONDS] ROUTINE NAME=VALUE,VALUE,... ...
+ * <br>
+ * ./gradlew simSweep --args='"Shoot Two Balls" "Shooter/kP=0.0001,0.00015,0.0002" "ShootTwoBalls/Feed Speed=0.8,1"'
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public final class SimSweep {
+    private static final Path OUTPUT_DIRECTORY = Paths.get("build", "sweep");
+    // Lines of output kept to explain a failed run
+    private static final int OUTPUT_TAIL_LINES = 20;
+    // Startup and the disabled time on top of the routine time limit
+    private static final long RUN_OVERHEAD_SECONDS = 60;
+
+    private final String routine;
+    private final List<String> names = new ArrayList<>();
+    private final List<String[]> values = new ArrayList<>();
+    private int jobs = Runtime.getRuntime().availableProcessors();
+    private double timeLimit = AutoSimRunner.DEFAULT_TIME_LIMIT;
+
+    private SimSweep(String[] args) {
+        String routine = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--jobs") && i + 1 < args.length) {
+                jobs = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--time-limit") && i + 1 < args.length) {
+                timeLimit = Double.parseDouble(args[++i]);
+            } else if (routine == null) {
+                routine = args[i];
+            } else {
+                int equals = args[i].indexOf('=');
+                if (equals <= 0) {
+                    throw new IllegalArgumentException("Expected NAME=VALUE,VALUE,... but got " + args[i]);
+                }
+                names.add(args[i].substring(0, equals));
+                values.add(args[i].substring(equals + 1).split(","));
+            }
+        }
+        if (routine == null) {
+            throw new IllegalArgumentException("No routine given");
+        }
+        this.routine = routine;
+    }
+
+    /**
+     * Runs the sweep
+     *
+     * @param args the routine, then one NAME=VALUE,VALUE,... argument for each parameter to sweep
+     *
+     * @throws Exception if the runs could not be started or were interrupted
+     *
+     * @since 1.0.6
+     */
+    public static void main(String... args) throws Exception {
+        // A single run, started by the sweep
+        if (args.length == 3 && args[0].equals("--run")) {
+            AutoSimRunner run = AutoSimRunner.runHeadless(args[1], Double.parseDouble(args[2]));
+            System.exit(run.isFinished() ? 0 : 1);
+        }
+
+        SimSweep sweep;
+        try {
+            sweep = new SimSweep(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SimSweep [--jobs N] [--time-limit SECONDS] ROUTINE NAME=VALUE,VALUE,... ...");
+            System.exit(2);
+            return;
+        }
+        sweep.run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        List<Run> runs = createRuns();
+        Files.createDirectories(OUTPUT_DIRECTORY);
+        System.out.printf("Running %s %d times, %d at a time%n", routine, runs.size(), jobs);
+
+        long startNanos = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Run run : runs) {
+            futures.add(executor.submit(() -> {
+                run.execute();
+                System.out.printf("[%d/%d] %s%n", run.index + 1, runs.size(), run.describe());
+                return null;
+            }));
+        }
+        executor.shutdown();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IOException("Simulation run failed to start", e.getCause());
+            }
+        }
+        double elapsed = (System.nanoTime() - startNanos) / 1e9;
+
+        List<Run> ranked = new ArrayList<>(runs);
+        ranked.sort(Comparator.comparing((Run run) -> !run.finished)
+                .thenComparingDouble(run -> run.time)
+                .thenComparingDouble(run -> run.error));
+
+        System.out.printf("%n%s, %d runs in %.1f s%n", routine, runs.size(), elapsed);
+        System.out.printf("%4s  %8s  %10s  %s%n", "Rank", "Time s", "Error", "Parameters");
+        for (int i = 0; i < ranked.size(); i++) {
+            Run run = ranked.get(i);
+            System.out.printf("%4d  %8s  %10s  %s%n", i + 1,
+                    run.finished ? String.format("%.3f", run.time) : "DNF",
+                    Double.isNaN(run.error) ? "-" : String.format("%.3f", run.error),
+                    run.params.isEmpty() ? "(defaults)" : run.params);
+        }
+        writeCsv(ranked);
+
+        boolean failed = false;
+        for (Run run : ranked) {
+            if (!run.hasResult) {
+                System.out.printf("%nRun %d exited with %d without a result, last output:%n", run.index, run.exitCode);
+                run.output.forEach(System.out::println);
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Builds one run for every combination of the parameter values
+     */
+    private List<Run> createRuns() {
+        List<Run> runs = new ArrayList<>();
+        int[] choice = new int[names.size()];
+        while (true) {
+            StringBuilder params = new StringBuilder();
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    params.append(',');
+                }
+                params.append(names.get(i)).append('=').append(values.get(i)[choice[i]].trim());
+            }
+            runs.add(new Run(runs.size(), params.toString()));
+
+            // Count through the combinations, the last parameter changing fastest
+            int i = names.size() - 1;
+            while (i >= 0 && ++choice[i] == values.get(i).length) {
+                choice[i] = 0;
+                i--;
+            }
+            if (i < 0) {
+                return runs;
+            }
+        }
+    }
+
+    private void writeCsv(List<Run> ranked) throws IOException {
+        Path file = OUTPUT_DIRECTORY.resolve("results.csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.print("rank,finished,time,error");
+            for (String name : names) {
+                out.print(",\"" + name + "\"");
+            }
+            out.println();
+            for (int i = 0; i < ranked.size(); i++) {
+                Run run = ranked.get(i);
+                out.printf("%d,%b,%s,%s", i + 1, run.finished, run.time, run.error);
+                if (!run.params.isEmpty()) {
+                    for (String param : run.params.split(",")) {
+                        out.print("," + param.substring(param.indexOf('=') + 1));
+                    }
+                }
+                out.println();
+            }
+        }
+        System.out.println("Results written to " + file);
+    }
+
+    /**
+     * One simulation JVM and its result
+     */
+    private class Run {
+        private final int index;
+        private final String params;
+
+        private boolean hasResult = false;
+        private boolean finished = false;
+        private double time = Double.POSITIVE_INFINITY;
+        private double error = Double.NaN;
+        private int exitCode;
+        private final ArrayDeque<String> output = new ArrayDeque<>();
+
+        private Run(int index, String params) {
+            this.index = index;
+            this.params = params;
+        }
+
+        private void execute() throws IOException, InterruptedException {
+            String java = ProcessHandle.current().info().command().orElse("java");
+            ProcessBuilder builder = new ProcessBuilder(Arrays.asList(java,
+                    "-Djava.library.path=" + System.getProperty("java.library.path"),
+                    "-cp", System.getProperty("java.class.path"),
+                    SimSweep.class.getName(), "--run", routine, Double.toString(timeLimit)));
+            builder.redirectErrorStream(true);
+
+            Map<String, String> environment = builder.environment();
+            // No GUI or other simulation extensions
+            environment.remove("HALSIM_EXTENSIONS");
+            environment.put("SIM_PARAMS", params);
+            environment.put("SIM_LOG_DIR", OUTPUT_DIRECTORY.resolve("run-" + index).toString());
+
+            Process process = builder.start();
+            // Kills a run that hangs, which also ends the read below
+            CompletableFuture.runAsync(process::destroyForcibly,
+                    CompletableFuture.delayedExecutor((long) timeLimit + RUN_OVERHEAD_SECONDS, TimeUnit.SECONDS));
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(AutoSimRunner.RESULT_PREFIX + " ")) {
+                        parseResult(line);
+                    }
+                    output.addLast(line);
+                    if (output.size() > OUTPUT_TAIL_LINES) {
+                        output.removeFirst();
+                    }
+                }
+            }
+            exitCode = process.waitFor();
+        }
+
+        private void parseResult(String line) {
+            hasResult = true;
+            for (String field : line.substring(AutoSimRunner.RESULT_PREFIX.length()).trim().split(" ")) {
+                int equals = field.indexOf('=');
+                String value = field.substring(equals + 1);
+                switch (field.substring(0, equals)) {
+                    case "finished":
+                        finished = Boolean.parseBoolean(value);
+                        break;
+                    case "time":
+                        time = Double.parseDouble(value);
+                        break;
+                    case "error":
+                        error = Double.parseDouble(value);
+                        break;
+                }
+            }
+        }
+
+        private String describe() {
+            String result = finished ? String.format("%.3f s, error %.3f", time, error) : "did not finish";
+            return (params.isEmpty() ? "(defaults)" : params) + ": " + result;
+        }
+    }
+}
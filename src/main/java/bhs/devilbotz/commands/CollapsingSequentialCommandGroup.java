@@ -0,0 +1,157 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.commands;
+
+import bhs.devilbotz.utils.CommandTracer;
+import bhs.devilbotz.utils.Telemetry;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandGroupBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A sequential command group that does not wait a scheduler tick between commands.
+ * <p>
+ * A {@link edu.wpi.first.wpilibj2.command.SequentialCommandGroup} initializes the next command when the
+ * current one finishes, but only executes it on the following tick. Every instant command in a routine
+ * therefore costs a full 20 ms. This group executes the next command right away, so a run of instant
+ * commands all finish within one tick and the next long-running command starts in that same tick.
+ * <p>
+ * The time saved is published as "(group name) Saved ms" each time the group ends.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class CollapsingSequentialCommandGroup extends CommandGroupBase {
+    private final List<Command> commands = new ArrayList<>();
+    private int currentCommandIndex = -1;
+    private boolean runWhenDisabled = true;
+
+    // Commands that started in the same tick their previous command finished
+    private int collapsedCommands;
+    private Telemetry.DoubleSignal savedMillisSignal;
+
+    /**
+     * Creates a new CollapsingSequentialCommandGroup. The given commands will be run sequentially,
+     * with the group finishing when the last command finishes.
+     *
+     * @param commands the commands to include in this group
+     *
+     * @since 1.0.6
+     */
+    public CollapsingSequentialCommandGroup(Command... commands) {
+        addCommands(commands);
+        // getName() is already the subclass name here
+        savedMillisSignal = Telemetry.number(getName() + " Saved ms");
+    }
+
+    /**
+     * Sets the name of this group, and moves its saved time signal under the new name.
+     * Call this while setting up the robot, not during a match.
+     *
+     * @param name the name
+     */
+    @Override
+    public void setName(String name) {
+        super.setName(name);
+        savedMillisSignal = Telemetry.number(name + " Saved ms");
+    }
+
+    @Override
+    public final void addCommands(Command... commands) {
+        requireUngrouped(commands);
+
+        if (currentCommandIndex != -1) {
+            throw new IllegalStateException("Commands cannot be added to a CommandGroup while the group is running");
+        }
+
+        registerGroupedCommands(commands);
+
+        for (Command command : commands) {
+            this.commands.add(command);
+            m_requirements.addAll(command.getRequirements());
+            runWhenDisabled &= command.runsWhenDisabled();
+        }
+    }
+
+    @Override
+    public void initialize() {
+        currentCommandIndex = 0;
+        collapsedCommands = 0;
+
+        if (!commands.isEmpty()) {
+            commands.get(0).initialize();
+            CommandTracer.commandStarted(commands.get(0));
+        }
+    }
+
+    @Override
+    public void execute() {
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        Command currentCommand = commands.get(currentCommandIndex);
+        currentCommand.execute();
+
+        // Keep going until a command needs more than this tick
+        while (currentCommand.isFinished()) {
+            currentCommand.end(false);
+            CommandTracer.commandEnded(currentCommand, false);
+            currentCommandIndex++;
+            if (currentCommandIndex >= commands.size()) {
+                return;
+            }
+            currentCommand = commands.get(currentCommandIndex);
+            currentCommand.initialize();
+            CommandTracer.commandStarted(currentCommand);
+            currentCommand.execute();
+            collapsedCommands++;
+        }
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted && !commands.isEmpty() && currentCommandIndex > -1
+                && currentCommandIndex < commands.size()) {
+            commands.get(currentCommandIndex).end(true);
+            CommandTracer.commandEnded(commands.get(currentCommandIndex), true);
+        }
+        currentCommandIndex = -1;
+
+        savedMillisSignal.set(getSavedMillis());
+    }
+
+    @Override
+    public boolean isFinished() {
+        return currentCommandIndex == commands.size();
+    }
+
+    @Override
+    public boolean runsWhenDisabled() {
+        return runWhenDisabled;
+    }
+
+    /**
+     * Gets the time the latest run saved over a {@link edu.wpi.first.wpilibj2.command.SequentialCommandGroup}
+     *
+     * @return the saved time in milliseconds, assuming the default 20 ms loop
+     *
+     * @since 1.0.6
+     */
+    public double getSavedMillis() {
+        return collapsedCommands * TimedRobot.kDefaultPeriod * 1000;
+    }
+}
@@ -11,6 +11,7 @@
 
 package bhs.devilbotz.commands;
 
+import bhs.devilbotz.Constants;
 import bhs.devilbotz.subsystems.DriveTrain;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 
@@ -51,7 +52,11 @@ public class DriveCommand extends CommandBase {
         r = (a * (r * r * r) + (b - a) * r) * 1.1;
         l = (a * (l * l * l) + (b - a) * l) * 1.1;
 
-        drive.tankDrive(r, l);
+        if (Constants.DriveConstants.VELOCITY_DRIVE) {
+            drive.velocityDrive(r, l);
+        } else {
+            drive.tankDrive(r, l);
+        }
     }
 
     @Override
@@ -0,0 +1,125 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+
+package bhs.devilbotz.commands;
+
+import bhs.devilbotz.utils.CommandTracer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandGroupBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A parallel command group that reports its commands to the {@link CommandTracer}.
+ * <p>
+ * It runs like a {@link edu.wpi.first.wpilibj2.command.ParallelCommandGroup}: every command starts together,
+ * and the group finishes when the last of them finishes. The scheduler never sees the commands inside a
+ * group, so without this they would not appear in the command trace, only the group would.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class TracedParallelCommandGroup extends CommandGroupBase {
+    private final List<Command> commands = new ArrayList<>();
+    // Whether each command is still running, by index in commands
+    private boolean[] running = new boolean[0];
+    private int runningCount = 0;
+    private boolean runWhenDisabled = true;
+
+    /**
+     * Creates a new TracedParallelCommandGroup. The given commands will be run at the same time,
+     * with the group finishing when the last command finishes.
+     *
+     * @param commands the commands to include in this group
+     *
+     * @since 1.0.6
+     */
+    public TracedParallelCommandGroup(Command... commands) {
+        addCommands(commands);
+    }
+
+    @Override
+    public final void addCommands(Command... commands) {
+        requireUngrouped(commands);
+
+        if (runningCount > 0) {
+            throw new IllegalStateException("Commands cannot be added to a CommandGroup while the group is running");
+        }
+
+        registerGroupedCommands(commands);
+        running = Arrays.copyOf(running, this.commands.size() + commands.length);
+
+        for (Command command : commands) {
+            if (!Collections.disjoint(command.getRequirements(), m_requirements)) {
+                throw new IllegalArgumentException("Multiple commands in a parallel group cannot require the same subsystems");
+            }
+            this.commands.add(command);
+            m_requirements.addAll(command.getRequirements());
+            runWhenDisabled &= command.runsWhenDisabled();
+        }
+    }
+
+    @Override
+    public void initialize() {
+        for (int i = 0; i < commands.size(); i++) {
+            commands.get(i).initialize();
+            CommandTracer.commandStarted(commands.get(i));
+            running[i] = true;
+        }
+        runningCount = commands.size();
+    }
+
+    @Override
+    public void execute() {
+        for (int i = 0; i < commands.size(); i++) {
+            if (!running[i]) {
+                continue;
+            }
+            Command command = commands.get(i);
+            command.execute();
+            if (command.isFinished()) {
+                command.end(false);
+                CommandTracer.commandEnded(command, false);
+                running[i] = false;
+                runningCount--;
+            }
+        }
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted) {
+            for (int i = 0; i < commands.size(); i++) {
+                if (running[i]) {
+                    commands.get(i).end(true);
+                    CommandTracer.commandEnded(commands.get(i), true);
+                    running[i] = false;
+                }
+            }
+        }
+        runningCount = 0;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return runningCount == 0;
+    }
+
+    @Override
+    public boolean runsWhenDisabled() {
+        return runWhenDisabled;
+    }
+}
@@ -12,70 +12,25 @@
 package bhs.devilbotz.commands.autonomous.drive;
 
 import bhs.devilbotz.subsystems.DriveTrain;
-import edu.wpi.first.math.filter.SlewRateLimiter;
-import edu.wpi.first.wpilibj2.command.CommandBase;
 
 /**
- * DriveDistance - Drives the robot for a certain distance
+ * DriveDistance - Drives the robot straight for a certain distance with Motion Magic
  *
  * @author Devilbotz
- * @version 1.0.5
+ * @version 1.0.6
  * @since 1.0.0
  */
-public class DriveDistance extends CommandBase {
-    private final DriveTrain drive;
-    private final double distance;
-    private final double speed;
-
+public class DriveDistance extends DriveMotionMagic {
     /**
      * DriveDistance constructor
      *
      * @param drive {@link DriveTrain} subsystem
-     * @param inches distance to drive in inches
-     * @param speed speed to drive at
+     * @param inches distance to drive in inches, negative to drive backwards
+     * @param speed top speed, as a fraction of the path following max velocity
      *
      * @since 1.0.0
      */
     public DriveDistance(DriveTrain drive, double inches, double speed) {
-        distance = inches;
-        this.speed = speed;
-        this.drive = drive;
-        addRequirements(drive);
-    }
-
-    /**
-     * Runs when the command is first scheduled.
-     */
-    @Override
-    public void initialize() {
-        drive.resetEncoders();
-    }
-
-    /**
-     * Called every time the scheduler runs while the command is scheduled.
-     */
-    @Override
-    public void execute() {
-        drive.tankDrive(speed, speed);;
-    }
-
-    /**
-     * Called once the command ends or is interrupted.
-     *
-     * @param interrupted Whether the command was interrupted.
-     */
-    @Override
-    public void end(boolean interrupted) {
-        drive.tankDrive(0, 0);
-    }
-
-    /**
-     * Returns true when the command should end.
-     *
-     * @return Whether the command should end.
-     */
-    @Override
-    public boolean isFinished() {
-        return drive.getAverageEncoderDistance() <= distance;
+        super(drive, inches, inches, cruiseVelocity(speed), maxAcceleration());
     }
-}
\ No newline at end of file
+}
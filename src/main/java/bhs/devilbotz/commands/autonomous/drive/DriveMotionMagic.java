@@ -0,0 +1,229 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* When doing any of the above, you MUST include the original                    */
+/* copyright and license files in any and all revised/modified code.             */
+/* You may NOT remove this header under any circumstance unless explicitly noted */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.commands.autonomous.drive;
+
+import bhs.devilbotz.Constants;
+import bhs.devilbotz.subsystems.DriveTrain;
+import bhs.devilbotz.utils.RobotClock;
+import bhs.devilbotz.utils.Telemetry;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+/**
+ * DriveMotionMagic - Moves each side of the robot a distance with Talon SRX Motion Magic
+ * <p>
+ * Each side follows a trapezoidal profile on its Talon. The longer side runs at the cruise velocity
+ * and the shorter side is scaled down, so both sides finish together. The NAVX can not be used as a
+ * remote sensor by the Talons, so the heading loop runs here instead: the heading the robot should have
+ * at the current progress is compared with the NAVX, and the correction is added to each side as an
+ * arbitrary feedforward.
+ * <p>
+ * The move ends once both sides have settled at their targets, and the time taken and final errors are
+ * published under the command name.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class DriveMotionMagic extends CommandBase {
+    // Give the move this long past the ideal profile time before giving up
+    private static final double TIMEOUT_MARGIN_SECONDS = 1.5;
+
+    private final DriveTrain drive;
+    private final double leftInches;
+    private final double rightInches;
+    private final double cruiseVelocity;
+    private final double acceleration;
+    private double startTime;
+
+    private Telemetry.DoubleSignal timeSignal;
+    private Telemetry.DoubleSignal settleSignal;
+    private Telemetry.DoubleSignal leftErrorSignal;
+    private Telemetry.DoubleSignal rightErrorSignal;
+    private Telemetry.DoubleSignal headingErrorSignal;
+
+    private double leftTarget;
+    private double rightTarget;
+    private double startHeading;
+    private double headingChange;
+    private double profileTime;
+    private double settleStartTime;
+    private boolean settled;
+
+    /**
+     * DriveMotionMagic constructor
+     *
+     * @param drive {@link DriveTrain} subsystem
+     * @param leftInches distance for the left side to move in inches, negative to drive backwards
+     * @param rightInches distance for the right side to move in inches, negative to drive backwards
+     * @param cruiseVelocity top speed of the longer side in inches per second
+     * @param acceleration acceleration of the longer side in inches per second squared
+     *
+     * @since 1.0.6
+     */
+    public DriveMotionMagic(DriveTrain drive, double leftInches, double rightInches,
+                            double cruiseVelocity, double acceleration) {
+        this.drive = drive;
+        this.leftInches = leftInches;
+        this.rightInches = rightInches;
+        this.cruiseVelocity = Math.abs(cruiseVelocity);
+        this.acceleration = Math.abs(acceleration);
+        addRequirements(drive);
+        // getName() is already the subclass name here
+        createSignals(getName());
+    }
+
+    /**
+     * Sets the name of this command, and moves its dashboard values under the new name.
+     * Call this while setting up the robot, not during a match.
+     *
+     * @param name the name
+     */
+    @Override
+    public void setName(String name) {
+        super.setName(name);
+        createSignals(name);
+    }
+
+    private void createSignals(String name) {
+        timeSignal = Telemetry.number(name + "/Time ms");
+        settleSignal = Telemetry.number(name + "/Settle ms");
+        leftErrorSignal = Telemetry.number(name + "/Left Error in");
+        rightErrorSignal = Telemetry.number(name + "/Right Error in");
+        headingErrorSignal = Telemetry.number(name + "/Heading Error deg");
+    }
+
+    /**
+     * Gets the top speed for a fraction of the path following max velocity
+     *
+     * @param speed fraction of the max velocity, from 0 to 1
+     *
+     * @return the velocity in inches per second
+     *
+     * @since 1.0.6
+     */
+    protected static double cruiseVelocity(double speed) {
+        return Math.abs(speed) * Constants.AutoConstants.MAX_VELOCITY_METERS_PER_SECOND / 0.0254;
+    }
+
+    /**
+     * Gets the path following max acceleration
+     *
+     * @return the acceleration in inches per second squared
+     *
+     * @since 1.0.6
+     */
+    protected static double maxAcceleration() {
+        return Constants.AutoConstants.MAX_ACCELERATION_METERS_PER_SECOND_SQUARED / 0.0254;
+    }
+
+    /**
+     * Runs when the command is first scheduled.
+     */
+    @Override
+    public void initialize() {
+        // Targets are relative to where the robot is now, so nothing is reset between moves
+        leftTarget = drive.getLeftEncoderDistance() + leftInches;
+        rightTarget = drive.getRightEncoderDistance() + rightInches;
+        startHeading = drive.getAngle().getDegrees();
+        headingChange = Math.toDegrees((rightInches - leftInches)
+                / (Constants.AutoConstants.TRACK_WIDTH_METERS / 0.0254));
+
+        double longest = Math.max(Math.abs(leftInches), Math.abs(rightInches));
+        double leftScale = longest == 0 ? 1 : Math.abs(leftInches) / longest;
+        double rightScale = longest == 0 ? 1 : Math.abs(rightInches) / longest;
+        drive.configureMotionMagic(cruiseVelocity * leftScale, acceleration * leftScale,
+                cruiseVelocity * rightScale, acceleration * rightScale);
+
+        profileTime = getProfileTime(longest);
+        settled = false;
+        settleStartTime = Double.NaN;
+
+        startTime = RobotClock.getTimestamp();
+    }
+
+    /**
+     * Called every time the scheduler runs while the command is scheduled.
+     */
+    @Override
+    public void execute() {
+        double leftError = leftTarget - drive.getLeftEncoderDistance();
+        double rightError = rightTarget - drive.getRightEncoderDistance();
+
+        // Hold the heading in proportion to how far along the move the robot is
+        double total = Math.abs(leftInches) + Math.abs(rightInches);
+        double progress = total == 0 ? 1 : 1 - (Math.abs(leftError) + Math.abs(rightError)) / total;
+        double expectedHeading = startHeading + headingChange * MathUtil.clamp(progress, 0, 1);
+        double headingError = getHeadingError(expectedHeading);
+        double correction = MathUtil.clamp(headingError * Constants.AutoConstants.HEADING_KP,
+                -Constants.AutoConstants.MAX_HEADING_CORRECTION, Constants.AutoConstants.MAX_HEADING_CORRECTION);
+
+        drive.setMotionMagic(leftTarget, rightTarget, correction);
+
+        double time = RobotClock.getTimestamp() - startTime;
+        boolean inTolerance = Math.abs(leftError) <= Constants.AutoConstants.POSITION_TOLERANCE_INCHES
+                && Math.abs(rightError) <= Constants.AutoConstants.POSITION_TOLERANCE_INCHES
+                && Math.abs(drive.getLeftEncoderRate()) <= Constants.AutoConstants.VELOCITY_TOLERANCE_INCHES_PER_SECOND
+                && Math.abs(drive.getRightEncoderRate()) <= Constants.AutoConstants.VELOCITY_TOLERANCE_INCHES_PER_SECOND;
+        if (!inTolerance) {
+            settleStartTime = Double.NaN;
+        } else if (Double.isNaN(settleStartTime)) {
+            settleStartTime = time;
+        } else if (time - settleStartTime >= Constants.AutoConstants.SETTLE_TIME) {
+            settled = true;
+        }
+    }
+
+    /**
+     * Called once the command ends or is interrupted.
+     *
+     * @param interrupted Whether the command was interrupted.
+     */
+    @Override
+    public void end(boolean interrupted) {
+        drive.tankDrive(0, 0);
+
+        // The move is counted as done when it first entered the tolerance
+        double doneTime = settled ? settleStartTime : RobotClock.getTimestamp() - startTime;
+        timeSignal.set(doneTime * 1000);
+        settleSignal.set(Math.max(0, doneTime - profileTime) * 1000);
+        leftErrorSignal.set(leftTarget - drive.getLeftEncoderDistance());
+        rightErrorSignal.set(rightTarget - drive.getRightEncoderDistance());
+        headingErrorSignal.set(getHeadingError(startHeading + headingChange));
+    }
+
+    /**
+     * Returns true when the command should end.
+     *
+     * @return Whether the command should end.
+     */
+    @Override
+    public boolean isFinished() {
+        return settled || RobotClock.getTimestamp() - startTime >= profileTime + TIMEOUT_MARGIN_SECONDS;
+    }
+
+    private double getHeadingError(double targetDegrees) {
+        return Rotation2d.fromDegrees(targetDegrees).minus(drive.getAngle()).getDegrees();
+    }
+
+    private double getProfileTime(double distance) {
+        if (cruiseVelocity == 0 || acceleration == 0) {
+            return 0;
+        }
+        // Triangular when the robot never reaches the cruise velocity
+        if (distance < cruiseVelocity * cruiseVelocity / acceleration) {
+            return 2 * Math.sqrt(distance / acceleration);
+        }
+        return distance / cruiseVelocity + cruiseVelocity / acceleration;
+    }
+}
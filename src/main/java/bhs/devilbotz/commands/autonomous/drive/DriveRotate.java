@@ -11,44 +11,115 @@
 
 package bhs.devilbotz.commands.autonomous.drive;
 
+import bhs.devilbotz.Constants;
 import bhs.devilbotz.subsystems.DriveTrain;
+import bhs.devilbotz.utils.RobotClock;
+import bhs.devilbotz.utils.Telemetry;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 
 /**
  * DriveRotate - Rotates the robot for a certain amount of degrees
+ * <p>
+ * The heading follows a trapezoidal profile with a PID correction, and each side is driven at the
+ * matching velocity on the Talon SRX velocity loops. The NAVX is not reset, so headings add up
+ * across a routine. The command ends once the heading has stayed inside the tolerance for the settle time.
  *
  * @author Devilbotz
- * @version 1.0.5
+ * @version 1.0.6
  * @since 1.0.0
  */
 public class DriveRotate extends CommandBase {
+    // Give the turn this long past the ideal profile time before giving up
+    private static final double TIMEOUT_MARGIN_SECONDS = 1.0;
+
+    private static final SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(
+            Constants.AutoConstants.KS_VOLTS,
+            Constants.AutoConstants.KV_VOLT_SECONDS_PER_METER,
+            Constants.AutoConstants.KA_VOLT_SECONDS_SQUARED_PER_METER);
+
+    private static final Telemetry.DoubleSignal timeSignal = Telemetry.number("DriveRotate/Time ms");
+    private static final Telemetry.DoubleSignal errorSignal = Telemetry.number("DriveRotate/Final Error deg");
+
     private final DriveTrain drive;
-    private final double degrees, rotationSpeed;
-    private double initialRotation;
+    private final double degrees;
+    private final boolean absolute;
+    private final TrapezoidProfile.Constraints constraints;
+    private final ProfiledPIDController controller;
+    private double startTime;
+
+    private double targetHeading;
+    private double timeout;
+    private double settleStartTime;
+    private boolean settled;
 
     /**
      * DriveRotate constructor
      *
      * @param drive {@link DriveTrain} subsystem
-     * @param degrees degrees to rotate
-     * @param rotationSpeed speed to rotate at
+     * @param degrees degrees to rotate, counterclockwise positive
+     * @param rotationSpeed top turn rate, as a fraction of the max turn rate
      *
      * @since 1.0.0
      */
     public DriveRotate(DriveTrain drive, double degrees, double rotationSpeed) {
+        this(drive, degrees, rotationSpeed, false);
+    }
+
+    private DriveRotate(DriveTrain drive, double degrees, double rotationSpeed, boolean absolute) {
         this.degrees = degrees;
-        this.rotationSpeed = rotationSpeed;
+        this.absolute = absolute;
         this.drive = drive;
+
+        constraints = new TrapezoidProfile.Constraints(
+                Math.abs(rotationSpeed) * Constants.AutoConstants.MAX_TURN_RATE_DEGREES_PER_SECOND,
+                Constants.AutoConstants.MAX_TURN_ACCELERATION_DEGREES_PER_SECOND_SQUARED);
+        controller = new ProfiledPIDController(Constants.AutoConstants.TURN_KP, 0, Constants.AutoConstants.TURN_KD, constraints);
+        // Headings wrap around, so the robot always takes the short way
+        controller.enableContinuousInput(-180, 180);
+        controller.setTolerance(Constants.AutoConstants.TURN_TOLERANCE_DEGREES,
+                Constants.AutoConstants.TURN_RATE_TOLERANCE_DEGREES_PER_SECOND);
+
         addRequirements(drive);
     }
 
+    /**
+     * Creates a DriveRotate that turns to a heading instead of by an amount, for example to aim at a target
+     *
+     * @param drive {@link DriveTrain} subsystem
+     * @param headingDegrees heading to turn to, as measured by {@link DriveTrain#getAngle()}
+     * @param rotationSpeed top turn rate, as a fraction of the max turn rate
+     *
+     * @return the command
+     *
+     * @since 1.0.6
+     */
+    public static DriveRotate toHeading(DriveTrain drive, double headingDegrees, double rotationSpeed) {
+        return new DriveRotate(drive, headingDegrees, rotationSpeed, true);
+    }
+
     /**
      * Called when the command is initially scheduled.
      */
     @Override
     public void initialize() {
-        drive.resetNavx();
-        initialRotation = drive.getAngle().getDegrees();
+        double heading = drive.getAngle().getDegrees();
+        targetHeading = MathUtil.inputModulus(absolute ? degrees : heading + degrees, -180, 180);
+
+        // Start the profile from the current heading and turn rate
+        controller.reset(heading, drive.getTurnRate());
+        controller.setGoal(targetHeading);
+
+        double distance = Math.abs(MathUtil.inputModulus(targetHeading - heading, -180, 180));
+        timeout = new TrapezoidProfile(constraints, new TrapezoidProfile.State(distance, 0)).totalTime()
+                + TIMEOUT_MARGIN_SECONDS;
+        settled = false;
+        settleStartTime = Double.NaN;
+
+        startTime = RobotClock.getTimestamp();
     }
 
     /**
@@ -56,7 +127,21 @@ public class DriveRotate extends CommandBase {
      */
     @Override
     public void execute() {
-        drive.tankDrive(rotationSpeed, -rotationSpeed);
+        double correction = controller.calculate(drive.getAngle().getDegrees());
+        double turnRate = Math.toRadians(controller.getSetpoint().velocity + correction);
+
+        // Counterclockwise is the right side moving forward
+        double wheelSpeed = turnRate * Constants.AutoConstants.TRACK_WIDTH_METERS / 2;
+        drive.setWheelSpeeds(-wheelSpeed, wheelSpeed, feedforward.calculate(-wheelSpeed), feedforward.calculate(wheelSpeed));
+
+        double time = RobotClock.getTimestamp() - startTime;
+        if (!controller.atGoal()) {
+            settleStartTime = Double.NaN;
+        } else if (Double.isNaN(settleStartTime)) {
+            settleStartTime = time;
+        } else if (time - settleStartTime >= Constants.AutoConstants.SETTLE_TIME) {
+            settled = true;
+        }
     }
 
     /**
@@ -67,6 +152,10 @@ public class DriveRotate extends CommandBase {
     @Override
     public void end(boolean interrupted) {
         drive.tankDrive(0, 0);
+
+        // The turn is counted as done when it first entered the tolerance
+        timeSignal.set((settled ? settleStartTime : RobotClock.getTimestamp() - startTime) * 1000);
+        errorSignal.set(MathUtil.inputModulus(targetHeading - drive.getAngle().getDegrees(), -180, 180));
     }
 
     /**
@@ -76,10 +165,6 @@ public class DriveRotate extends CommandBase {
      */
     @Override
     public boolean isFinished() {
-        if (degrees < 0) {
-            return drive.getAngle().getDegrees() <= initialRotation + degrees;
-        } else {
-            return drive.getAngle().getDegrees() >= initialRotation + degrees;
-        }
+        return settled || RobotClock.getTimestamp() - startTime >= timeout;
     }
-}
\ No newline at end of file
+}
@@ -12,6 +12,7 @@
 package bhs.devilbotz.commands.autonomous.drive;
 
 import bhs.devilbotz.subsystems.DriveTrain;
+import bhs.devilbotz.utils.RobotClock;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 
 /**
@@ -24,7 +25,7 @@ import edu.wpi.first.wpilibj2.command.CommandBase;
 public class DriveTimed extends CommandBase {
     private final DriveTrain drive;
     private final double time, speed;
-    private long startTime;
+    private double startTime;
 
     /**
      * DriveTimed constructor
@@ -47,7 +48,7 @@ public class DriveTimed extends CommandBase {
      */
     @Override
     public void initialize() {
-        startTime = System.currentTimeMillis();
+        startTime = RobotClock.getTimestamp();
     }
 
     /**
@@ -75,6 +76,6 @@ public class DriveTimed extends CommandBase {
      */
     @Override
     public boolean isFinished() {
-        return (System.currentTimeMillis() - startTime) / 1000.0 >= time;
+        return RobotClock.getTimestamp() - startTime >= time;
     }
 }
\ No newline at end of file
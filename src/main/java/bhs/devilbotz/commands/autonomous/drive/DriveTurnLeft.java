@@ -12,66 +12,29 @@
 package bhs.devilbotz.commands.autonomous.drive;
 
 import bhs.devilbotz.subsystems.DriveTrain;
-import edu.wpi.first.wpilibj2.command.CommandBase;
 
 /**
- * DriveDistance - Drives the robot for a certain distance
+ * DriveTurnLeft - Drives the robot along an arc with Motion Magic
  *
  * @author Devilbotz
- * @version 1.0.5
+ * @version 1.0.6
  * @since 1.0.0
  */
-public class DriveTurnLeft extends CommandBase {
-    private final DriveTrain drive;
-    private final double leftInches, rightInches, leftSpeed, rightSpeed;
-
+public class DriveTurnLeft extends DriveMotionMagic {
     /**
-     * DriveDistance constructor
+     * DriveTurnLeft constructor
+     *
      * @param drive {@link DriveTrain} subsystem
+     * @param leftInches distance for the left side to drive in inches
+     * @param rightInches distance for the right side to drive in inches
+     * @param leftSpeed top speed of the left side, as a fraction of the path following max velocity
+     * @param rightSpeed top speed of the right side, as a fraction of the path following max velocity
+     *
      * @since 1.0.0
      */
     public DriveTurnLeft(DriveTrain drive, double leftInches, double rightInches, double leftSpeed, double rightSpeed) {
-        this.leftInches = leftInches;
-        this.rightInches = rightInches;
-        this.leftSpeed = leftSpeed;
-        this.rightSpeed = rightSpeed;
-        this.drive = drive;
-        addRequirements(drive);
-    }
-
-    /**
-     * Runs when the command is first scheduled.
-     */
-    @Override
-    public void initialize() {
-        drive.resetEncoders();
-    }
-
-    /**
-     * Called every time the scheduler runs while the command is scheduled.
-     */
-    @Override
-    public void execute() {
-        drive.tankDrive(leftSpeed, rightSpeed);
-    }
-
-    /**
-     * Called once the command ends or is interrupted.
-     *
-     * @param interrupted Whether the command was interrupted.
-     */
-    @Override
-    public void end(boolean interrupted) {
-        drive.tankDrive(0, 0);
-    }
-
-    /**
-     * Returns true when the command should end.
-     *
-     * @return Whether the command should end.
-     */
-    @Override
-    public boolean isFinished() {
-        return drive.getLeftEncoderDistance() <= leftInches;
+        // The side speeds are scaled to the distances so both sides finish together, the faster one sets the pace
+        super(drive, leftInches, rightInches,
+                cruiseVelocity(Math.max(Math.abs(leftSpeed), Math.abs(rightSpeed))), maxAcceleration());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* When doing any of the above, you MUST include the original                    */
+/* copyright and license files in any and all revised/modified code.             */
+/* You may NOT remove this header under any circumstance unless explicitly noted */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.commands.autonomous.drive;
+
+import bhs.devilbotz.Constants;
+import bhs.devilbotz.subsystems.DriveTrain;
+import bhs.devilbotz.utils.PathLoader;
+import bhs.devilbotz.utils.RobotClock;
+import bhs.devilbotz.utils.Telemetry;
+import edu.wpi.first.math.controller.RamseteController;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.kinematics.DifferentialDriveWheelSpeeds;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+/**
+ * FollowPath - Follows a trajectory with a RAMSETE controller
+ * <p>
+ * Wheel speeds from the controller are sent to the Talon SRX velocity loops, with the
+ * characterized feedforward added on top. The distance and heading between the robot and
+ * the trajectory are published while the command runs, and summarized when it ends.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class FollowPath extends CommandBase {
+    private static final DifferentialDriveKinematics kinematics =
+            new DifferentialDriveKinematics(Constants.AutoConstants.TRACK_WIDTH_METERS);
+    private static final SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(
+            Constants.AutoConstants.KS_VOLTS,
+            Constants.AutoConstants.KV_VOLT_SECONDS_PER_METER,
+            Constants.AutoConstants.KA_VOLT_SECONDS_SQUARED_PER_METER);
+
+    // Tracking error
+    private static final Telemetry.DoubleSignal translationErrorSignal = Telemetry.number("FollowPath/Translation Error m", 10);
+    private static final Telemetry.DoubleSignal headingErrorSignal = Telemetry.number("FollowPath/Heading Error deg", 10);
+    private static final Telemetry.DoubleSignal maxTranslationErrorSignal = Telemetry.number("FollowPath/Max Translation Error m");
+    private static final Telemetry.DoubleSignal rmsTranslationErrorSignal = Telemetry.number("FollowPath/RMS Translation Error m");
+    private static final Telemetry.DoubleSignal maxHeadingErrorSignal = Telemetry.number("FollowPath/Max Heading Error deg");
+    private static final Telemetry.DoubleSignal finalTranslationErrorSignal = Telemetry.number("FollowPath/Final Translation Error m");
+
+    private final DriveTrain drive;
+    private final String pathName;
+    private Trajectory trajectory;
+    private final boolean resetPose;
+    private final RamseteController controller = new RamseteController(
+            Constants.AutoConstants.RAMSETE_B, Constants.AutoConstants.RAMSETE_ZETA);
+    private double startTime;
+
+    private double previousTime;
+    private double previousLeftSpeed;
+    private double previousRightSpeed;
+
+    private int samples;
+    private double sumSquaredTranslationError;
+    private double maxTranslationError;
+    private double maxHeadingError;
+    private double translationError;
+
+    /**
+     * FollowPath constructor
+     *
+     * @param drive {@link DriveTrain} subsystem
+     * @param trajectory the trajectory to follow
+     * @param resetPose true to move the pose estimate to the start of the trajectory,
+     *                  for the first path of a routine
+     *
+     * @since 1.0.6
+     */
+    public FollowPath(DriveTrain drive, Trajectory trajectory, boolean resetPose) {
+        this.drive = drive;
+        this.pathName = null;
+        this.trajectory = trajectory;
+        this.resetPose = resetPose;
+        addRequirements(drive);
+    }
+
+    /**
+     * FollowPath constructor for a deployed path. The path is not loaded until the command first runs.
+     *
+     * @param drive {@link DriveTrain} subsystem
+     * @param pathName the PathPlanner path name
+     * @param resetPose true to move the pose estimate to the start of the trajectory,
+     *                  for the first path of a routine
+     *
+     * @since 1.0.6
+     */
+    public FollowPath(DriveTrain drive, String pathName, boolean resetPose) {
+        this.drive = drive;
+        this.pathName = pathName;
+        this.resetPose = resetPose;
+        addRequirements(drive);
+    }
+
+    /**
+     * Runs when the command is first scheduled.
+     */
+    @Override
+    public void initialize() {
+        if (trajectory == null) {
+            trajectory = PathLoader.load(pathName);
+        }
+        if (trajectory.getStates().isEmpty()) {
+            return;
+        }
+        if (resetPose) {
+            drive.resetPose(trajectory.getInitialPose());
+        }
+
+        Trajectory.State initialState = trajectory.sample(0);
+        DifferentialDriveWheelSpeeds initialSpeeds = kinematics.toWheelSpeeds(new ChassisSpeeds(
+                initialState.velocityMetersPerSecond, 0,
+                initialState.curvatureRadPerMeter * initialState.velocityMetersPerSecond));
+        previousLeftSpeed = initialSpeeds.leftMetersPerSecond;
+        previousRightSpeed = initialSpeeds.rightMetersPerSecond;
+        previousTime = -1;
+
+        samples = 0;
+        sumSquaredTranslationError = 0;
+        maxTranslationError = 0;
+        maxHeadingError = 0;
+
+        startTime = RobotClock.getTimestamp();
+    }
+
+    /**
+     * Called every time the scheduler runs while the command is scheduled.
+     */
+    @Override
+    public void execute() {
+        if (trajectory.getStates().isEmpty()) {
+            return;
+        }
+
+        double time = RobotClock.getTimestamp() - startTime;
+        double dt = previousTime < 0 ? 0 : time - previousTime;
+        previousTime = time;
+
+        Trajectory.State desired = trajectory.sample(time);
+        Pose2d pose = drive.getPose();
+        DifferentialDriveWheelSpeeds speeds = kinematics.toWheelSpeeds(controller.calculate(pose, desired));
+
+        double leftFeedforward;
+        double rightFeedforward;
+        if (dt > 0) {
+            leftFeedforward = feedforward.calculate(speeds.leftMetersPerSecond,
+                    (speeds.leftMetersPerSecond - previousLeftSpeed) / dt);
+            rightFeedforward = feedforward.calculate(speeds.rightMetersPerSecond,
+                    (speeds.rightMetersPerSecond - previousRightSpeed) / dt);
+        } else {
+            leftFeedforward = feedforward.calculate(speeds.leftMetersPerSecond);
+            rightFeedforward = feedforward.calculate(speeds.rightMetersPerSecond);
+        }
+        previousLeftSpeed = speeds.leftMetersPerSecond;
+        previousRightSpeed = speeds.rightMetersPerSecond;
+
+        drive.setWheelSpeeds(speeds.leftMetersPerSecond, speeds.rightMetersPerSecond, leftFeedforward, rightFeedforward);
+
+        // Tracking error
+        translationError = pose.getTranslation().getDistance(desired.poseMeters.getTranslation());
+        double headingError = Math.abs(pose.getRotation().minus(desired.poseMeters.getRotation()).getDegrees());
+        samples++;
+        sumSquaredTranslationError += translationError * translationError;
+        maxTranslationError = Math.max(maxTranslationError, translationError);
+        maxHeadingError = Math.max(maxHeadingError, headingError);
+        translationErrorSignal.set(translationError);
+        headingErrorSignal.set(headingError);
+    }
+
+    /**
+     * Called once the command ends or is interrupted.
+     *
+     * @param interrupted Whether the command was interrupted.
+     */
+    @Override
+    public void end(boolean interrupted) {
+        drive.tankDrive(0, 0);
+
+        if (samples > 0) {
+            maxTranslationErrorSignal.set(maxTranslationError);
+            rmsTranslationErrorSignal.set(Math.sqrt(sumSquaredTranslationError / samples));
+            maxHeadingErrorSignal.set(maxHeadingError);
+            finalTranslationErrorSignal.set(translationError);
+        }
+    }
+
+    /**
+     * Returns true when the command should end.
+     *
+     * @return Whether the command should end.
+     */
+    @Override
+    public boolean isFinished() {
+        return trajectory.getStates().isEmpty() || RobotClock.getTimestamp() - startTime >= trajectory.getTotalTimeSeconds();
+    }
+}
@@ -0,0 +1,142 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* When doing any of the above, you MUST include the original                    */
+/* copyright and license files in any and all revised/modified code.             */
+/* You may NOT remove this header under any circumstance unless explicitly noted */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.commands.autonomous.drive;
+
+import bhs.devilbotz.Constants;
+import bhs.devilbotz.subsystems.DriveTrain;
+import bhs.devilbotz.utils.DriveProfile;
+import bhs.devilbotz.utils.PathLoader;
+import bhs.devilbotz.utils.RobotClock;
+import bhs.devilbotz.utils.Telemetry;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+/**
+ * FollowPathProfile - Follows a trajectory with the Talon SRX motion profile executors
+ * <p>
+ * The trajectory is converted into wheel positions, velocities and feedforward, and streamed to the
+ * Talons, which run it at their own rate with no help from the robot loop. There is no heading or
+ * pose correction, so use {@link FollowPath} when the path needs to end at an exact field position.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class FollowPathProfile extends CommandBase {
+    // Give the Talons this long past the end of the profile before giving up
+    private static final double TIMEOUT_MARGIN_SECONDS = 1.0;
+
+    private static final Telemetry.DoubleSignal progressSignal = Telemetry.number("FollowPathProfile/Progress", 10);
+    private static final Telemetry.DoubleSignal bufferedPointsSignal = Telemetry.number("FollowPathProfile/Buffered Points", 10);
+    private static final Telemetry.DoubleSignal minBufferedPointsSignal = Telemetry.number("FollowPathProfile/Min Buffered Points");
+    private static final Telemetry.DoubleSignal underrunsSignal = Telemetry.number("FollowPathProfile/Underruns");
+    private static final Telemetry.DoubleSignal finalTranslationErrorSignal = Telemetry.number("FollowPathProfile/Final Translation Error m");
+
+    private final DriveTrain drive;
+    private final String pathName;
+    private final boolean resetPose;
+    private double startTime;
+
+    private Trajectory trajectory;
+    private DriveProfile profile;
+    private double minBufferedPoints;
+
+    /**
+     * FollowPathProfile constructor. The path is not loaded until the command first runs.
+     *
+     * @param drive {@link DriveTrain} subsystem
+     * @param pathName the PathPlanner path name
+     * @param resetPose true to move the pose estimate to the start of the trajectory,
+     *                  for the first path of a routine
+     *
+     * @since 1.0.6
+     */
+    public FollowPathProfile(DriveTrain drive, String pathName, boolean resetPose) {
+        this.drive = drive;
+        this.pathName = pathName;
+        this.resetPose = resetPose;
+        addRequirements(drive);
+    }
+
+    /**
+     * Runs when the command is first scheduled.
+     */
+    @Override
+    public void initialize() {
+        if (profile == null) {
+            trajectory = PathLoader.load(pathName);
+            profile = DriveProfile.fromTrajectory(trajectory, Constants.AutoConstants.PROFILE_POINT_PERIOD_MS);
+        }
+        if (profile.length() == 0) {
+            return;
+        }
+        if (resetPose) {
+            drive.resetPose(trajectory.getInitialPose());
+        }
+
+        minBufferedPoints = Double.MAX_VALUE;
+        drive.startMotionProfile(profile);
+
+        startTime = RobotClock.getTimestamp();
+    }
+
+    /**
+     * Called every time the scheduler runs while the command is scheduled.
+     */
+    @Override
+    public void execute() {
+        if (!drive.isMotionProfileStatusValid()) {
+            return;
+        }
+
+        double bufferedPoints = drive.getMotionProfileBufferedPoints();
+        // The buffer drains at the end of the profile, so only the streaming part counts
+        if (drive.getMotionProfileProgress() < 1 && bufferedPoints < minBufferedPoints) {
+            minBufferedPoints = bufferedPoints;
+        }
+
+        progressSignal.set(drive.getMotionProfileProgress());
+        bufferedPointsSignal.set(bufferedPoints);
+        underrunsSignal.set(drive.getMotionProfileUnderruns());
+    }
+
+    /**
+     * Called once the command ends or is interrupted.
+     *
+     * @param interrupted Whether the command was interrupted.
+     */
+    @Override
+    public void end(boolean interrupted) {
+        drive.stopMotionProfile();
+        drive.tankDrive(0, 0);
+
+        if (profile.length() > 0) {
+            progressSignal.set(drive.getMotionProfileProgress());
+            underrunsSignal.set(drive.getMotionProfileUnderruns());
+            minBufferedPointsSignal.set(minBufferedPoints == Double.MAX_VALUE ? 0 : minBufferedPoints);
+            finalTranslationErrorSignal.set(drive.getPose().getTranslation()
+                    .getDistance(trajectory.sample(trajectory.getTotalTimeSeconds()).poseMeters.getTranslation()));
+        }
+    }
+
+    /**
+     * Returns true when the command should end.
+     *
+     * @return Whether the command should end.
+     */
+    @Override
+    public boolean isFinished() {
+        return profile.length() == 0
+                || drive.isMotionProfileFinished()
+                || RobotClock.getTimestamp() - startTime >= profile.getDurationSeconds() + TIMEOUT_MARGIN_SECONDS;
+    }
+}
@@ -1,5 +1,7 @@
 package bhs.devilbotz.commands.autonomous.drive.driverassist;
 
+import bhs.devilbotz.Constants;
+import bhs.devilbotz.OperatorInputs;
 import bhs.devilbotz.RobotContainer;
 import bhs.devilbotz.subsystems.DriveTrain;
 import edu.wpi.first.wpilibj.AnalogPotentiometer;
@@ -15,6 +17,10 @@ public class Approach extends CommandBase {
 
     private final RobotContainer robotContainer;
 
+    // Ranges are read once per loop in execute() and reused by isFinished()
+    private double range;
+    private double rangeTwo;
+
     public Approach(DriveTrain drive, RobotContainer robotContainer) {
         this.drive = drive;
         this.robotContainer = robotContainer;
@@ -43,11 +49,14 @@ public class Approach extends CommandBase {
      */
     @Override
     public void execute() {
+        range = ultrasonic.getRangeMM();
+        rangeTwo = ultrasonicTwo.getRangeMM();
+
         System.out.println("Ultrasonic: " + ultrasonicThree.get());
-        if (Math.abs((ultrasonicTwo.getRangeMM() - ultrasonic.getRangeMM()) / ultrasonic.getRangeMM()) < 0.25) {
+        if (Math.abs((rangeTwo - range) / range) < 0.25) {
             drive.tankDrive(0.5, 0.5);
         } else {
-            if (ultrasonic.getRangeMM() >= ultrasonicTwo.getRangeMM()) {
+            if (range >= rangeTwo) {
                 drive.tankDrive(-0.5, 0.5);
             } else {
                 drive.tankDrive(0.5, -0.5);
@@ -72,7 +81,11 @@ public class Approach extends CommandBase {
      */
     @Override
     public boolean isFinished() {
-        return (((Math.abs((ultrasonicTwo.getRangeMM() - ultrasonic.getRangeMM()) / ultrasonic.getRangeMM()) < 0.25) && (ultrasonic.getRangeMM() <= 300.0 && ultrasonicTwo.getRangeMM() <= 300.0) || (ultrasonic.getRangeMM() >= 4500.0 && ultrasonicTwo.getRangeMM() >= 4500.0)) || ((robotContainer.getJoy().getY() >= 0.15 || robotContainer.getJoyTwo().getY() >= 0.15) || (robotContainer.getJoy().getY() <= -0.15 || robotContainer.getJoyTwo().getY() <= -0.15)));
+        OperatorInputs operatorInputs = robotContainer.getOperatorInputs();
+        double joyY = operatorInputs.getY(Constants.JOYSTICK);
+        double joyTwoY = operatorInputs.getY(Constants.JOYSTICK_TWO);
+
+        return (((Math.abs((rangeTwo - range) / range) < 0.25) && (range <= 300.0 && rangeTwo <= 300.0) || (range >= 4500.0 && rangeTwo >= 4500.0)) || ((joyY >= 0.15 || joyTwoY >= 0.15) || (joyY <= -0.15 || joyTwoY <= -0.15)));
     }
 
     public Ultrasonic getUltrasonic() {
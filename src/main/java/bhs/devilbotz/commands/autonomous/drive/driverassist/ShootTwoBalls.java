@@ -11,18 +11,22 @@
 
 package bhs.devilbotz.commands.autonomous.drive.driverassist;
 
+import bhs.devilbotz.commands.CollapsingSequentialCommandGroup;
+import bhs.devilbotz.commands.TracedParallelCommandGroup;
 import bhs.devilbotz.commands.autonomous.drive.driverassist.helper.PrepareForShoot;
 import bhs.devilbotz.commands.autonomous.shooter.ShooterRPM;
-import bhs.devilbotz.commands.autonomous.transfer.TransferInTimed;
 import bhs.devilbotz.commands.autonomous.transfer.TransferOutTimed;
 import bhs.devilbotz.commands.shooter.ShooterInstantStop;
 import bhs.devilbotz.commands.shooter.ShooterSetAuto;
+import bhs.devilbotz.commands.transfer.TransferFeedShot;
 import bhs.devilbotz.commands.transfer.TransferInstantStop;
 import bhs.devilbotz.subsystems.DriveTrain;
 import bhs.devilbotz.subsystems.Shooter;
 import bhs.devilbotz.subsystems.Transfer;
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
-import edu.wpi.first.wpilibj2.command.WaitCommand;
+import bhs.devilbotz.utils.RobotClock;
+import bhs.devilbotz.utils.SimParameters;
+import bhs.devilbotz.utils.Telemetry;
+import edu.wpi.first.wpilibj2.command.InstantCommand;
 
 /**
  * AutoTest - Test autonomous routines
@@ -31,31 +35,80 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @version 1.0.5
  * @since 1.0.5
  */
-public class ShootTwoBalls extends SequentialCommandGroup {
+public class ShootTwoBalls extends CollapsingSequentialCommandGroup {
+    private static final String[] PHASES = {"Index", "SpinUp", "Shot 1", "Recover", "Shot 2"};
+
+    private final Telemetry.DoubleSignal[] phaseSignals = new Telemetry.DoubleSignal[PHASES.length];
+    private final Telemetry.DoubleSignal totalSignal = Telemetry.number("ShootTwoBalls/Total ms");
+    private final Telemetry.StringSignal summarySignal = Telemetry.string("ShootTwoBalls/Summary");
+    private final double[] phaseTimes = new double[PHASES.length];
+    private double startTime;
+    private double phaseStartTime;
+
     /**
-     * AutoTest constructor
+     * ShootTwoBalls constructor
+     * <p>
+     * Every step waits for a measured event instead of a fixed time: the ball clearing the color sensor,
+     * the flywheel settling at its setpoint and the flywheel dip that marks a shot. The timeouts are only
+     * there in case a sensor never reports.
      *
      * @param drive {@link DriveTrain} subsystem
+     * @param transfer {@link Transfer} subsystem
+     * @param shooter {@link Shooter} subsystem
      *
      * @since 1.0.0
      */
     public ShootTwoBalls(DriveTrain drive, Transfer transfer, Shooter shooter) {
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseSignals[i] = Telemetry.number("ShootTwoBalls/" + PHASES[i] + " ms");
+        }
+        double feedSpeed = SimParameters.get("ShootTwoBalls/Feed Speed", 1);
+
         addCommands(
+                new InstantCommand(this::start),
                 new ShooterSetAuto(shooter, true),
                 new PrepareForShoot(drive, transfer, shooter),
-                new WaitCommand(0.10),
-                new TransferOutTimed(transfer, 0.15),
-                new WaitCommand(0.05),
+                endPhase(0),
+                // Back the ball off the flywheel while it spins up
+                new TracedParallelCommandGroup(
+                        new TransferOutTimed(transfer, SimParameters.get("ShootTwoBalls/Back Off Time", 0.15)),
+                        new ShooterRPM(shooter)
+                ),
+                endPhase(1),
+                new TransferFeedShot(transfer, shooter, feedSpeed, 1.0),
+                endPhase(2),
                 new ShooterRPM(shooter),
-                new WaitCommand(0.6),
-                new TransferInTimed(transfer, 0.5),
-                new TransferInstantStop(transfer),
-                new ShooterRPM(shooter),
-                new WaitCommand(0.3),
-                new TransferInTimed(transfer, 2),
+                endPhase(3),
+                new TransferFeedShot(transfer, shooter, feedSpeed, 1.5),
+                endPhase(4),
                 new TransferInstantStop(transfer),
                 new ShooterInstantStop(shooter),
-                new ShooterSetAuto(shooter, false)
+                new ShooterSetAuto(shooter, false),
+                new InstantCommand(this::publish)
         );
     }
+
+    private void start() {
+        startTime = RobotClock.getTimestamp();
+        phaseStartTime = startTime;
+    }
+
+    private InstantCommand endPhase(int phase) {
+        return new InstantCommand(() -> {
+            double now = RobotClock.getTimestamp();
+            phaseTimes[phase] = (now - phaseStartTime) * 1000;
+            phaseStartTime = now;
+        });
+    }
+
+    private void publish() {
+        StringBuilder summary = new StringBuilder("ShootTwoBalls");
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseSignals[i].set(phaseTimes[i]);
+            summary.append(String.format(" | %s %.0f ms", PHASES[i], phaseTimes[i]));
+        }
+        double total = (RobotClock.getTimestamp() - startTime) * 1000;
+        totalSignal.set(total);
+        summarySignal.set(summary.append(String.format(" | Total %.0f ms", total)).toString());
+    }
 }
@@ -11,6 +11,7 @@
 
 package bhs.devilbotz.commands.autonomous.routines;
 
+import bhs.devilbotz.commands.CollapsingSequentialCommandGroup;
 import bhs.devilbotz.commands.autonomous.drive.DriveTimed;
 import bhs.devilbotz.commands.autonomous.shooter.ShooterRPM;
 import bhs.devilbotz.commands.autonomous.transfer.TransferInTimed;
@@ -24,7 +25,6 @@ import bhs.devilbotz.commands.shooter.ShooterForwardPID;
 import bhs.devilbotz.commands.shooter.ShooterReverse;
 import bhs.devilbotz.commands.shooter.ShooterStop;
 import bhs.devilbotz.subsystems.*;
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /**
@@ -34,7 +34,7 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @version 1.0.5
  * @since 1.0.5
  */
-public class Diagnostic extends SequentialCommandGroup {
+public class Diagnostic extends CollapsingSequentialCommandGroup {
     /**
      * AutoTest constructor
      * @param drive {@link DriveTrain} subsystem
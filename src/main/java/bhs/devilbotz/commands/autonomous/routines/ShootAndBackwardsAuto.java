@@ -11,6 +11,7 @@
 
 package bhs.devilbotz.commands.autonomous.routines;
 
+import bhs.devilbotz.commands.CollapsingSequentialCommandGroup;
 import bhs.devilbotz.commands.autonomous.drive.DriveDistance;
 import bhs.devilbotz.commands.autonomous.drive.DriveTimed;
 import bhs.devilbotz.commands.autonomous.shooter.ShooterRPM;
@@ -21,7 +22,7 @@ import bhs.devilbotz.commands.transfer.TransferInstantStop;
 import bhs.devilbotz.subsystems.DriveTrain;
 import bhs.devilbotz.subsystems.Shooter;
 import bhs.devilbotz.subsystems.Transfer;
-import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import bhs.devilbotz.utils.SimParameters;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 
 /**
@@ -31,24 +32,26 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
  * @version 1.0.5
  * @since 1.0.5
  */
-public class ShootAndBackwardsAuto extends SequentialCommandGroup {
+public class ShootAndBackwardsAuto extends CollapsingSequentialCommandGroup {
     /**
      * AutoTest constructor
      * @param drive {@link DriveTrain} subsystem
      * @since 1.0.0
      */
     public ShootAndBackwardsAuto(DriveTrain drive, Transfer transfer, Shooter shooter) {
+        double transferSpeed = SimParameters.get("ShootAndBackwardsAuto/Transfer Speed", 1);
+
         addCommands(
-                new TransferInTimed(transfer, 1),
-                new WaitCommand(0.25),
-                new TransferOutTimed(transfer, 0.5),
-                new WaitCommand(1),
+                new TransferInTimed(transfer, SimParameters.get("ShootAndBackwardsAuto/Index Time", 1), transferSpeed),
+                new WaitCommand(SimParameters.get("ShootAndBackwardsAuto/Index Wait", 0.25)),
+                new TransferOutTimed(transfer, SimParameters.get("ShootAndBackwardsAuto/Back Off Time", 0.5)),
+                new WaitCommand(SimParameters.get("ShootAndBackwardsAuto/Back Off Wait", 1)),
                 new ShooterRPM(shooter),
-                new WaitCommand(1),
-                new TransferInTimed(transfer, 4),
+                new WaitCommand(SimParameters.get("ShootAndBackwardsAuto/Spin Up Wait", 1)),
+                new TransferInTimed(transfer, SimParameters.get("ShootAndBackwardsAuto/Feed Time", 4), transferSpeed),
                 new TransferInstantStop(transfer),
                 new ShooterInstantStop(shooter),
-                new WaitCommand(1.5),
+                new WaitCommand(SimParameters.get("ShootAndBackwardsAuto/Drive Wait", 1.5)),
                 new DriveTimed(drive, 1.5, -0.7)
         );
     }
@@ -37,13 +37,7 @@ public class ShooterRPM extends CommandBase {
 
     @Override
     public void initialize() {
-
-        System.out.println(shooter.getGoalWidget().getSelected().getName());
         if (shooter.getGoalWidget().getSelected().getName().equals("SetHighGoal")) {
-            //loop 500 times
-            for (int i = 0; i < 500; i++) {
-                System.out.println("HIGH");
-            }
             shooter.setHighGoal();
         } else {
             shooter.setLowGoal();
@@ -74,7 +68,7 @@ public class ShooterRPM extends CommandBase {
      */
     @Override
     public boolean isFinished() {
-        return shooter.atSetpoint();
+        return shooter.isReadyToFeed();
     }
 
     /**
@@ -12,6 +12,7 @@
 package bhs.devilbotz.commands.autonomous.transfer;
 
 import bhs.devilbotz.subsystems.Transfer;
+import bhs.devilbotz.utils.RobotClock;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 
 /**
@@ -25,21 +26,36 @@ import edu.wpi.first.wpilibj2.command.CommandBase;
 public class TransferInTimed extends CommandBase {
     private final Transfer transfer;
     private double time;
-    private long startTime;
+    private final double speed;
+    private double startTime;
 
     /**
      * IntakeStop constructor
      * @since 1.0.5
      */
     public TransferInTimed(Transfer transfer, double time) {
+        this(transfer, time, 1);
+    }
+
+    /**
+     * TransferInTimed constructor
+     *
+     * @param transfer {@link Transfer} subsystem
+     * @param time how long to run the transfer in seconds
+     * @param speed the transfer speed, from 0 to 1
+     *
+     * @since 1.0.6
+     */
+    public TransferInTimed(Transfer transfer, double time, double speed) {
         this.transfer = transfer;
         this.time = time;
+        this.speed = speed;
         addRequirements(transfer);
     }
 
     @Override
     public void initialize() {
-        startTime = System.currentTimeMillis();
+        startTime = RobotClock.getTimestamp();
     }
 
     /**
@@ -48,7 +64,7 @@ public class TransferInTimed extends CommandBase {
      */
     @Override
     public void execute() {
-        transfer.set(1);
+        transfer.set(speed);
     }
 
     /**
@@ -67,7 +83,7 @@ public class TransferInTimed extends CommandBase {
      */
     @Override
     public boolean isFinished() {
-        return (System.currentTimeMillis() - startTime) / 1000.0 >= time;
+        return RobotClock.getTimestamp() - startTime >= time;
     }
 
     /**
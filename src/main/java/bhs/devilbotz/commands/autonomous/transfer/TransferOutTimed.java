@@ -12,6 +12,7 @@
 package bhs.devilbotz.commands.autonomous.transfer;
 
 import bhs.devilbotz.subsystems.Transfer;
+import bhs.devilbotz.utils.RobotClock;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 
 /**
@@ -25,7 +26,7 @@ import edu.wpi.first.wpilibj2.command.CommandBase;
 public class TransferOutTimed extends CommandBase {
     private final Transfer transfer;
     private double time;
-    private long startTime;
+    private double startTime;
 
     /**
      * IntakeStop constructor
@@ -39,7 +40,7 @@ public class TransferOutTimed extends CommandBase {
 
     @Override
     public void initialize() {
-        startTime = System.currentTimeMillis();
+        startTime = RobotClock.getTimestamp();
     }
 
     /**
@@ -67,7 +68,7 @@ public class TransferOutTimed extends CommandBase {
      */
     @Override
     public boolean isFinished() {
-        return (System.currentTimeMillis() - startTime) / 1000.0 >= time;
+        return RobotClock.getTimestamp() - startTime >= time;
     }
 
     /**
@@ -50,7 +50,7 @@ public class ShooterStop extends CommandBase {
 
             shooter.disable();
             shooter.stop();
-            shooter.getAtSetpointWidget().setBoolean(false);
+            shooter.clearAtSetpointWidget();
 
     }
 
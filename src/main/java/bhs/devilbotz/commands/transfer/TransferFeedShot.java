@@ -0,0 +1,114 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* When doing any of the above, you MUST include the original                    */
+/* copyright and license files in any and all revised/modified code.             */
+/* You may NOT remove this header under any circumstance unless explicitly noted */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.commands.transfer;
+
+import bhs.devilbotz.subsystems.Shooter;
+import bhs.devilbotz.subsystems.Transfer;
+import bhs.devilbotz.utils.RobotClock;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+/**
+ * TransferFeedShot command
+ * Feeds a ball into the shooter and ends as soon as the shooter sees the flywheel dip from the shot
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class TransferFeedShot extends CommandBase {
+    private final Transfer transfer;
+    private final Shooter shooter;
+    private final double speed;
+    private final double timeout;
+
+    private int shotsAtStart;
+    private double startTime;
+
+    /**
+     * TransferFeedShot constructor
+     *
+     * @param transfer {@link Transfer} subsystem
+     * @param shooter {@link Shooter} subsystem, only used to watch for the shot
+     * @param timeout the longest time to feed for if no shot is seen, in seconds
+     *
+     * @since 1.0.6
+     */
+    public TransferFeedShot(Transfer transfer, Shooter shooter, double timeout) {
+        this(transfer, shooter, 1, timeout);
+    }
+
+    /**
+     * TransferFeedShot constructor
+     *
+     * @param transfer {@link Transfer} subsystem
+     * @param shooter {@link Shooter} subsystem, only used to watch for the shot
+     * @param speed the transfer speed, from 0 to 1
+     * @param timeout the longest time to feed for if no shot is seen, in seconds
+     *
+     * @since 1.0.6
+     */
+    public TransferFeedShot(Transfer transfer, Shooter shooter, double speed, double timeout) {
+        this.transfer = transfer;
+        this.shooter = shooter;
+        this.speed = speed;
+        this.timeout = timeout;
+        addRequirements(transfer);
+    }
+
+    @Override
+    public void initialize() {
+        shotsAtStart = shooter.getShotCount();
+        startTime = RobotClock.getTimestamp();
+    }
+
+    /**
+     * Executed when the command is initially scheduled
+     *
+     * @since 1.0.6
+     */
+    @Override
+    public void execute() {
+        transfer.set(speed);
+    }
+
+    /**
+     * Called once the command ends or is interrupted.
+     *
+     * @param interrupted True if the command was interrupted, false otherwise.
+     *
+     * @since 1.0.6
+     */
+    @Override
+    public void end(boolean interrupted) {
+        transfer.stop();
+    }
+
+    /**
+     * Returns true when the command should end.
+     *
+     * @return True if the command should end, false otherwise.
+     */
+    @Override
+    public boolean isFinished() {
+        return shooter.getShotCount() > shotsAtStart || RobotClock.getTimestamp() - startTime >= timeout;
+    }
+
+    /**
+     * If the command should run when the robot is disabled
+     *
+     * @return True if the command should run when the robot is disabled, false otherwise.
+     */
+    @Override
+    public boolean runsWhenDisabled() {
+        return false;
+    }
+}
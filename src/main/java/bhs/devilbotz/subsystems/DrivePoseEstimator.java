@@ -0,0 +1,143 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems;
+
+import bhs.devilbotz.Constants;
+import bhs.devilbotz.subsystems.inputs.DriveTrainInputs;
+import bhs.devilbotz.utils.PoseHistory;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.estimator.DifferentialDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveWheelSpeeds;
+
+/**
+ * Tracks the robot pose on the field by fusing the drive encoders and the NAVX
+ * with a {@link DifferentialDrivePoseEstimator}.
+ * <p>
+ * Every estimate is kept in a {@link PoseHistory}, so delayed measurements can be matched to where the
+ * robot was when they were taken. Vision measurements can be added with
+ * {@link #addVisionMeasurement(Pose2d, double)} once a camera pipeline exists.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class DrivePoseEstimator {
+    private static final double METERS_PER_TICK = Constants.AutoConstants.METERS_PER_TICK;
+    // 1.5 seconds of history at 50 Hz
+    private static final int HISTORY_SIZE = 75;
+
+    private final DifferentialDrivePoseEstimator estimator;
+    private final PoseHistory history = new PoseHistory(HISTORY_SIZE);
+
+    // Encoder readings that correspond to zero distance for the estimator
+    private double leftOffsetMeters;
+    private double rightOffsetMeters;
+
+    private Pose2d pose = new Pose2d();
+
+    /**
+     * DrivePoseEstimator constructor
+     *
+     * @param inputs the current drive inputs
+     *
+     * @since 1.0.6
+     */
+    public DrivePoseEstimator(DriveTrainInputs inputs) {
+        estimator = new DifferentialDrivePoseEstimator(getGyroAngle(inputs), pose,
+                // State: x, y, heading, left distance, right distance
+                VecBuilder.fill(0.02, 0.02, 0.01, 0.02, 0.02),
+                // Local measurements: left distance, right distance, heading
+                VecBuilder.fill(0.02, 0.02, 0.01),
+                // Vision: x, y, heading
+                VecBuilder.fill(0.1, 0.1, 0.1));
+        reset(inputs, pose);
+    }
+
+    /**
+     * Adds the latest drive inputs to the estimate
+     *
+     * @param inputs the drive inputs for this loop
+     *
+     * @since 1.0.6
+     */
+    public void update(DriveTrainInputs inputs) {
+        // Talon velocities are per 100 ms
+        DifferentialDriveWheelSpeeds wheelSpeeds = new DifferentialDriveWheelSpeeds(
+                inputs.leftVelocityTicks * 10 * METERS_PER_TICK,
+                inputs.rightVelocityTicks * 10 * METERS_PER_TICK);
+
+        pose = estimator.updateWithTime(inputs.timestamp, getGyroAngle(inputs), wheelSpeeds,
+                inputs.leftPositionTicks * METERS_PER_TICK - leftOffsetMeters,
+                inputs.rightPositionTicks * METERS_PER_TICK - rightOffsetMeters);
+        history.add(inputs.timestamp, pose);
+    }
+
+    /**
+     * Moves the estimate to a known pose. This must also be called whenever the encoders or the gyro are reset.
+     *
+     * @param inputs the current drive inputs
+     * @param pose the pose of the robot
+     *
+     * @since 1.0.6
+     */
+    public void reset(DriveTrainInputs inputs, Pose2d pose) {
+        leftOffsetMeters = inputs.leftPositionTicks * METERS_PER_TICK;
+        rightOffsetMeters = inputs.rightPositionTicks * METERS_PER_TICK;
+        estimator.resetPosition(pose, getGyroAngle(inputs));
+        history.clear();
+        this.pose = pose;
+    }
+
+    /**
+     * Corrects the estimate with a field pose measured by vision
+     *
+     * @param visionPose the measured pose
+     * @param timestamp the FPGA time the image was captured, in seconds
+     *
+     * @since 1.0.6
+     */
+    public void addVisionMeasurement(Pose2d visionPose, double timestamp) {
+        estimator.addVisionMeasurement(visionPose, timestamp);
+    }
+
+    /**
+     * Gets the latest pose estimate
+     *
+     * @return the pose in meters
+     *
+     * @since 1.0.6
+     */
+    public Pose2d getPose() {
+        return pose;
+    }
+
+    /**
+     * Gets the estimated pose at an earlier time
+     *
+     * @param timestamp the FPGA time in seconds
+     *
+     * @return the pose at that time, or the latest pose if there is no history yet
+     *
+     * @since 1.0.6
+     */
+    public Pose2d getPose(double timestamp) {
+        Pose2d past = history.getPose(timestamp);
+        return past == null ? pose : past;
+    }
+
+    private static Rotation2d getGyroAngle(DriveTrainInputs inputs) {
+        // Negative because the NAVX is CW positive
+        return Rotation2d.fromDegrees(-inputs.yawDegrees);
+    }
+}
@@ -12,17 +12,23 @@
 package bhs.devilbotz.subsystems;
 
 import bhs.devilbotz.Constants;
-import com.ctre.phoenix.motorcontrol.FeedbackDevice;
-import com.ctre.phoenix.motorcontrol.IMotorController;
-import com.ctre.phoenix.motorcontrol.InvertType;
+import bhs.devilbotz.subsystems.inputs.DriveTrainInputs;
+import bhs.devilbotz.subsystems.io.DriveTrainIO;
+import bhs.devilbotz.utils.DriveProfile;
+import bhs.devilbotz.utils.SimParameters;
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
-import com.ctre.phoenix.motorcontrol.can.TalonSRXConfiguration;
-import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
-import com.kauailabs.navx.frc.AHRS;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.filter.SlewRateLimiter;
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.wpilibj.SPI;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.drive.DifferentialDrive;
+import edu.wpi.first.wpilibj.motorcontrol.MotorController;
+import edu.wpi.first.wpilibj.smartdashboard.Field2d;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
 /**
@@ -33,61 +39,94 @@ import edu.wpi.first.wpilibj2.command.SubsystemBase;
  * @since 1.0.0
  */
 public class DriveTrain extends SubsystemBase {
-    // Define talons
-    private static final WPI_TalonSRX leftMaster = new WPI_TalonSRX(1);
-    private static final WPI_TalonSRX rightMaster = new WPI_TalonSRX(3);
-    private static final WPI_TalonSRX leftFollower = new WPI_TalonSRX(2);
-    private static final WPI_TalonSRX rightFollower = new WPI_TalonSRX(4);
+    private final DriveTrainIO io;
 
-    // Define NAVX
-    private static final AHRS navx = new AHRS(SPI.Port.kMXP);
+    // DifferentialDrive writes into these, the outputs are then passed on to the IO
+    private final OutputMotor leftMotor = new OutputMotor();
+    private final OutputMotor rightMotor = new OutputMotor();
 
     // Define differential drive
-    private final DifferentialDrive differentialDrive = new DifferentialDrive(leftMaster, rightMaster);
+    private final DifferentialDrive differentialDrive = new DifferentialDrive(leftMotor, rightMotor);
 
-    private final SlewRateLimiter leftSlew = new SlewRateLimiter(5);
+    private final SlewRateLimiter leftSlew = new SlewRateLimiter(SimParameters.get("DriveTrain/Slew Rate", 5));
 
-    private final SlewRateLimiter rightSlew = new SlewRateLimiter(5);
+    private final SlewRateLimiter rightSlew = new SlewRateLimiter(SimParameters.get("DriveTrain/Slew Rate", 5));
+
+    // Velocity drive, limits the wheel acceleration in meters per second squared
+    private final SlewRateLimiter leftVelocityLimiter = new SlewRateLimiter(SimParameters.get("DriveTrain/Teleop Acceleration",
+            Constants.DriveConstants.MAX_TELEOP_ACCELERATION_METERS_PER_SECOND_SQUARED));
+    private final SlewRateLimiter rightVelocityLimiter = new SlewRateLimiter(SimParameters.get("DriveTrain/Teleop Acceleration",
+            Constants.DriveConstants.MAX_TELEOP_ACCELERATION_METERS_PER_SECOND_SQUARED));
+    private final SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(
+            Constants.AutoConstants.KS_VOLTS,
+            Constants.AutoConstants.KV_VOLT_SECONDS_PER_METER,
+            Constants.AutoConstants.KA_VOLT_SECONDS_SQUARED_PER_METER);
+    private double leftVelocitySetpoint;
+    private double rightVelocitySetpoint;
+
+    private final DriveTrainInputs inputs = new DriveTrainInputs();
+
+    private final DrivePoseEstimator poseEstimator;
+    private final Field2d field = new Field2d();
+
+    // Motion profile running on the Talons
+    private DriveProfile profile;
+    private double leftProfileStart;
+    private double rightProfileStart;
+    private double profileStartTime;
 
     /**
      * The constructor for the DriveTrain subsystem
      *
+     * @param io the drive hardware
+     *
      * @since 1.0.0
      */
-    public DriveTrain() {
-        setupTalons();
+    public DriveTrain(DriveTrainIO io) {
+        this.io = io;
+        poseEstimator = new DrivePoseEstimator(inputs);
         resetNavx();
+
+        SmartDashboard.putData("Field", field);
     }
 
-  
     /**
-     * Gets the NAVX
+     * Reads every DriveTrain sensor once. The rest of the loop uses these values.
      *
-     * @return The NAVX
+     * @param timestamp the FPGA timestamp of the snapshot in seconds
+     *
+     * @since 1.0.6
      */
-    public static AHRS getNavx() {
-        return navx;
+    public void updateInputs(double timestamp) {
+        inputs.timestamp = timestamp;
+        io.updateInputs(inputs);
     }
 
     /**
-     * Sets up the talons
+     * Adds the DriveTrain inputs and outputs to the binary log
      *
-     * @since 1.0.0
+     * @param log the log to register with
+     *
+     * @since 1.0.6
      */
-    private void setupTalons() {
-        rightMaster.setInverted(true);
-        leftMaster.setInverted(false);
-        // Set the talons to follow each other
-        rightFollower.follow(rightMaster);
-        leftFollower.follow(leftMaster);
-
-        // Set the follower talons to invert to match the master talons
-        rightFollower.setInverted(InvertType.FollowMaster);
-        leftFollower.setInverted(InvertType.FollowMaster);
+    public void registerLogSignals(BinaryLog log) {
+        inputs.toLog(log, "DriveTrain/");
+        log.addFloat("DriveTrain/LeftOutput", leftMotor::get);
+        log.addFloat("DriveTrain/RightOutput", rightMotor::get);
+        log.addFloat("DriveTrain/PoseX", () -> poseEstimator.getPose().getX());
+        log.addFloat("DriveTrain/PoseY", () -> poseEstimator.getPose().getY());
+        log.addFloat("DriveTrain/PoseDegrees", () -> poseEstimator.getPose().getRotation().getDegrees());
+    }
 
-        // Set the sensor phase of the master talons
-        rightMaster.setSensorPhase(true);
-        leftMaster.setSensorPhase(true);
+    /**
+     * Replaces the DriveTrain sensor readings with a recorded log
+     *
+     * @param replay the replay to bind to
+     *
+     * @since 1.0.6
+     */
+    public void registerReplay(LogReplay replay) {
+        inputs.fromLog(replay, "DriveTrain/");
     }
 
     /**
@@ -97,10 +136,10 @@ public class DriveTrain extends SubsystemBase {
      */
     public void resetCalNavx() {
         // Reset the gyro
-        navx.reset();
+        io.resetGyro();
 
         // Calibrate the gyro
-        navx.calibrate();
+        io.calibrateGyro();
     }
 
     /**
@@ -109,7 +148,9 @@ public class DriveTrain extends SubsystemBase {
      * @since 1.0.0
      */
     public void resetNavx() {
-        navx.reset();
+        io.resetGyro();
+        inputs.yawDegrees = 0;
+        poseEstimator.reset(inputs, poseEstimator.getPose());
     }
 
     /**
@@ -118,30 +159,123 @@ public class DriveTrain extends SubsystemBase {
      * @since 1.0.0
      */
     public void resetEncoders() {
-        leftMaster.setSelectedSensorPosition(0, 0, 0);
-        rightMaster.setSelectedSensorPosition(0, 0, 0);
+        io.resetEncoders();
+        inputs.leftPositionTicks = 0;
+        inputs.rightPositionTicks = 0;
+        poseEstimator.reset(inputs, poseEstimator.getPose());
     }
 
     /**
-     * Gets the left master talon
+     * Gets the estimated robot pose on the field
      *
-     * @return The left master talon
+     * @return the pose in meters
      *
-     * @since 1.0.0
+     * @since 1.0.6
      */
-    public WPI_TalonSRX getLeftMaster() {
-        return leftMaster;
+    public Pose2d getPose() {
+        return poseEstimator.getPose();
     }
 
     /**
-     * Gets the right master talon
+     * Gets the estimated robot pose at an earlier time, for latency compensation
      *
-     * @return The right master talon
+     * @param timestamp the FPGA time in seconds
      *
-     * @since 1.0.0
+     * @return the pose in meters
+     *
+     * @since 1.0.6
+     */
+    public Pose2d getPose(double timestamp) {
+        return poseEstimator.getPose(timestamp);
+    }
+
+    /**
+     * Moves the pose estimate to a known pose, such as the start position of an autonomous routine
+     *
+     * @param pose the pose in meters
+     *
+     * @since 1.0.6
+     */
+    public void resetPose(Pose2d pose) {
+        poseEstimator.reset(inputs, pose);
+    }
+
+    /**
+     * Corrects the pose estimate with a field pose measured by vision
+     *
+     * @param visionPose the measured pose in meters
+     * @param timestamp the FPGA time the image was captured, in seconds
+     *
+     * @since 1.0.6
+     */
+    public void addVisionMeasurement(Pose2d visionPose, double timestamp) {
+        poseEstimator.addVisionMeasurement(visionPose, timestamp);
+    }
+
+    /**
+     * Gets the output voltage of the left master talon
+     *
+     * @return the output voltage
+     *
+     * @since 1.0.6
+     */
+    public double getLeftAppliedVolts() {
+        return inputs.leftAppliedVolts;
+    }
+
+    /**
+     * Gets the output voltage of the right master talon
+     *
+     * @return the output voltage
+     *
+     * @since 1.0.6
      */
-    public WPI_TalonSRX getRightMaster() {
-        return rightMaster;
+    public double getRightAppliedVolts() {
+        return inputs.rightAppliedVolts;
+    }
+
+    /**
+     * Gets the output voltage of the left follower talon
+     *
+     * @return the output voltage
+     *
+     * @since 1.0.6
+     */
+    public double getLeftFollowerAppliedVolts() {
+        return inputs.leftFollowerAppliedVolts;
+    }
+
+    /**
+     * Gets the output voltage of the right follower talon
+     *
+     * @return the output voltage
+     *
+     * @since 1.0.6
+     */
+    public double getRightFollowerAppliedVolts() {
+        return inputs.rightFollowerAppliedVolts;
+    }
+
+    /**
+     * Gets the left encoder velocity
+     *
+     * @return the velocity in sensor units per 100 ms
+     *
+     * @since 1.0.6
+     */
+    public double getLeftVelocity() {
+        return inputs.leftVelocityTicks;
+    }
+
+    /**
+     * Gets the right encoder velocity
+     *
+     * @return the velocity in sensor units per 100 ms
+     *
+     * @since 1.0.6
+     */
+    public double getRightVelocity() {
+        return inputs.rightVelocityTicks;
     }
 
     /**
@@ -150,19 +284,56 @@ public class DriveTrain extends SubsystemBase {
      * @return the linear distance traveled by the robot in inches
      */
     public double getAverageEncoderDistance() {
-        double leftDistance = leftMaster.getSelectedSensorPosition()
+        double leftDistance = inputs.leftPositionTicks
                 * (Constants.AutoConstants.WHEEL_DIAMETER_INCHES * Math.PI / 4096);
-        double rightDistance = rightMaster.getSelectedSensorPosition()
+        double rightDistance = inputs.rightPositionTicks
                 * (Constants.AutoConstants.WHEEL_DIAMETER_INCHES * Math.PI / 4096);
         return ((Math.abs(leftDistance) + Math.abs(rightDistance)) / 2);
     }
 
     public double getLeftEncoderDistance() {
-        return leftMaster.getSelectedSensorPosition()
+        return inputs.leftPositionTicks
                 * (Constants.AutoConstants.WHEEL_DIAMETER_INCHES * Math.PI / 4096);
     }
 
-    double kP = 0.35;
+    /**
+     * Gets the distance traveled by the right side
+     *
+     * @return the distance in inches
+     *
+     * @since 1.0.6
+     */
+    public double getRightEncoderDistance() {
+        return inputs.rightPositionTicks
+                * (Constants.AutoConstants.WHEEL_DIAMETER_INCHES * Math.PI / 4096);
+    }
+
+    /**
+     * Gets the left side velocity
+     *
+     * @return the velocity in inches per second
+     *
+     * @since 1.0.6
+     */
+    public double getLeftEncoderRate() {
+        // Talon velocities are per 100 ms
+        return inputs.leftVelocityTicks * 10
+                * (Constants.AutoConstants.WHEEL_DIAMETER_INCHES * Math.PI / 4096);
+    }
+
+    /**
+     * Gets the right side velocity
+     *
+     * @return the velocity in inches per second
+     *
+     * @since 1.0.6
+     */
+    public double getRightEncoderRate() {
+        return inputs.rightVelocityTicks * 10
+                * (Constants.AutoConstants.WHEEL_DIAMETER_INCHES * Math.PI / 4096);
+    }
+
+    double kP = SimParameters.get("DriveTrain/kP", 0.35);
 
 
     /**
@@ -172,9 +343,181 @@ public class DriveTrain extends SubsystemBase {
      * @param rightSpeed The speed of the right side of the robot
      */
     public void tankDrive(double leftSpeed, double rightSpeed) {
-        double error = -navx.getRate();
+        double error = -inputs.yawRateDegreesPerSecond;
 
+        profile = null;
         differentialDrive.tankDrive(leftSlew.calculate(leftSpeed) + kP * error, rightSlew.calculate(rightSpeed) + kP * error);
+        io.setOutput(leftMotor.get(), rightMotor.get());
+    }
+
+    /**
+     * Tank drive method that runs each side at a velocity on the Talon SRX velocity loops,
+     * so the robot accelerates the same way at any battery voltage
+     *
+     * @param leftSpeed The speed of the left side of the robot, from -1 to 1 of the max teleop velocity
+     * @param rightSpeed The speed of the right side of the robot, from -1 to 1 of the max teleop velocity
+     *
+     * @since 1.0.6
+     */
+    public void velocityDrive(double leftSpeed, double rightSpeed) {
+        double maxVelocity = Constants.DriveConstants.MAX_TELEOP_VELOCITY_METERS_PER_SECOND;
+        double deadband = Constants.DriveConstants.JOYSTICK_DEADBAND;
+        double left = leftVelocityLimiter.calculate(MathUtil.applyDeadband(MathUtil.clamp(leftSpeed, -1, 1), deadband) * maxVelocity);
+        double right = rightVelocityLimiter.calculate(MathUtil.applyDeadband(MathUtil.clamp(rightSpeed, -1, 1), deadband) * maxVelocity);
+
+        // The limiter sets the acceleration, so the feedforward can account for it
+        double leftAcceleration = (left - leftVelocitySetpoint) / TimedRobot.kDefaultPeriod;
+        double rightAcceleration = (right - rightVelocitySetpoint) / TimedRobot.kDefaultPeriod;
+        leftVelocitySetpoint = left;
+        rightVelocitySetpoint = right;
+
+        setWheelSpeeds(left, right, feedforward.calculate(left, leftAcceleration), feedforward.calculate(right, rightAcceleration));
+    }
+
+    /**
+     * Drives each side at a velocity using the Talon SRX velocity loops
+     *
+     * @param leftMetersPerSecond left side velocity
+     * @param rightMetersPerSecond right side velocity
+     * @param leftFeedforwardVolts left side feedforward
+     * @param rightFeedforwardVolts right side feedforward
+     *
+     * @since 1.0.6
+     */
+    public void setWheelSpeeds(double leftMetersPerSecond, double rightMetersPerSecond,
+                               double leftFeedforwardVolts, double rightFeedforwardVolts) {
+        profile = null;
+        // Talon velocities are per 100 ms
+        io.setVelocity(leftMetersPerSecond / Constants.AutoConstants.METERS_PER_TICK / 10,
+                rightMetersPerSecond / Constants.AutoConstants.METERS_PER_TICK / 10,
+                leftFeedforwardVolts, rightFeedforwardVolts);
+        // Keep the motor safety watchdog from stopping the motors
+        differentialDrive.feed();
+    }
+
+    /**
+     * Sets how fast each side moves during a Motion Magic move
+     *
+     * @param leftCruiseVelocity left side cruise velocity in inches per second
+     * @param leftAcceleration left side acceleration in inches per second squared
+     * @param rightCruiseVelocity right side cruise velocity in inches per second
+     * @param rightAcceleration right side acceleration in inches per second squared
+     *
+     * @since 1.0.6
+     */
+    public void configureMotionMagic(double leftCruiseVelocity, double leftAcceleration,
+                                     double rightCruiseVelocity, double rightAcceleration) {
+        double ticksPerInch = 4096 / (Constants.AutoConstants.WHEEL_DIAMETER_INCHES * Math.PI);
+        // Talon velocities are per 100 ms
+        io.configureMotionMagic(leftCruiseVelocity * ticksPerInch / 10, leftAcceleration * ticksPerInch / 10,
+                rightCruiseVelocity * ticksPerInch / 10, rightAcceleration * ticksPerInch / 10);
+    }
+
+    /**
+     * Drives each side to an encoder distance with Talon SRX Motion Magic
+     *
+     * @param leftInches left side target, as measured by {@link #getLeftEncoderDistance()}
+     * @param rightInches right side target, as measured by {@link #getRightEncoderDistance()}
+     * @param turnCorrection output added to the right side and taken from the left side,
+     *                       positive turns counterclockwise
+     *
+     * @since 1.0.6
+     */
+    public void setMotionMagic(double leftInches, double rightInches, double turnCorrection) {
+        profile = null;
+        double ticksPerInch = 4096 / (Constants.AutoConstants.WHEEL_DIAMETER_INCHES * Math.PI);
+        io.setMotionMagic(leftInches * ticksPerInch, rightInches * ticksPerInch, -turnCorrection, turnCorrection);
+        differentialDrive.feed();
+    }
+
+    /**
+     * Streams a profile to the Talon SRX motion profile executors, which then follow it on their own.
+     * The profile starts from the current encoder positions.
+     *
+     * @param profile the profile to follow
+     *
+     * @since 1.0.6
+     */
+    public void startMotionProfile(DriveProfile profile) {
+        this.profile = profile;
+        leftProfileStart = inputs.leftPositionTicks;
+        rightProfileStart = inputs.rightPositionTicks;
+        profileStartTime = inputs.timestamp;
+        io.startMotionProfile(profile, leftProfileStart, rightProfileStart);
+    }
+
+    /**
+     * Stops the motion profile and clears the points the Talons have not run yet
+     *
+     * @since 1.0.6
+     */
+    public void stopMotionProfile() {
+        profile = null;
+        io.stopMotionProfile();
+    }
+
+    /**
+     * Gets if both Talons have run the last point of the motion profile
+     *
+     * @return true when the profile is done, or no profile is running
+     *
+     * @since 1.0.6
+     */
+    public boolean isMotionProfileFinished() {
+        return profile == null || (isMotionProfileStatusValid() && inputs.profileFinished);
+    }
+
+    /**
+     * Gets if the inputs were read after the current motion profile started. Until then,
+     * the profile status in the inputs belongs to the previous profile.
+     *
+     * @return true if the profile status is current
+     *
+     * @since 1.0.6
+     */
+    public boolean isMotionProfileStatusValid() {
+        return profile != null && inputs.timestamp > profileStartTime;
+    }
+
+    /**
+     * Gets how far along the motion profile the Talons are, from the distance of the active point
+     *
+     * @return the fraction of the profile distance covered, from 0 to 1
+     *
+     * @since 1.0.6
+     */
+    public double getMotionProfileProgress() {
+        if (!isMotionProfileStatusValid() || profile.length() == 0) {
+            return 0;
+        }
+        double leftTotal = Math.abs(profile.leftPosition[profile.length() - 1]);
+        double rightTotal = Math.abs(profile.rightPosition[profile.length() - 1]);
+        double covered = Math.abs(inputs.leftProfilePosition - leftProfileStart)
+                + Math.abs(inputs.rightProfilePosition - rightProfileStart);
+        double total = leftTotal + rightTotal;
+        return total == 0 ? 1 : Math.min(1, covered / total);
+    }
+
+    /**
+     * Gets the number of points streamed to the Talons but not run yet, on the side with the fewest
+     *
+     * @return the buffered point count
+     *
+     * @since 1.0.6
+     */
+    public double getMotionProfileBufferedPoints() {
+        return Math.min(inputs.leftProfileBufferedPoints, inputs.rightProfileBufferedPoints);
+    }
+
+    /**
+     * Gets the number of times a Talon ran out of profile points since the profile started
+     *
+     * @return the underrun count
+     *
+     * @since 1.0.6
+     */
+    public double getMotionProfileUnderruns() {
+        return inputs.profileUnderruns;
     }
 
     /**
@@ -184,7 +527,9 @@ public class DriveTrain extends SubsystemBase {
      * @param rotation The rotation of the robot
      */
     public void arcadeDrive(double speed, double rotation) {
+        profile = null;
         differentialDrive.arcadeDrive(speed, rotation);
+        io.setOutput(leftMotor.get(), rightMotor.get());
     }
 
     /**
@@ -193,10 +538,7 @@ public class DriveTrain extends SubsystemBase {
      * @param mode The mode to set the talons to
      */
     public void setTalonMode(NeutralMode mode) {
-        leftMaster.setNeutralMode(mode);
-        rightMaster.setNeutralMode(mode);
-        leftFollower.setNeutralMode(mode);
-        rightFollower.setNeutralMode(mode);
+        io.setNeutralMode(mode);
     }
 
     /**
@@ -206,7 +548,18 @@ public class DriveTrain extends SubsystemBase {
      */
     public Rotation2d getAngle() {
         // Negative because WPILib Gyro is CW positive
-        return Rotation2d.fromDegrees(-navx.getAngle());
+        return Rotation2d.fromDegrees(-inputs.yawDegrees);
+    }
+
+        /**
+     * Gets how fast the robot is turning
+     *
+     * @return the turn rate in degrees per second, counterclockwise positive like {@link #getAngle()}
+     *
+     * @since 1.0.6
+     */
+    public double getTurnRate() {
+        return -inputs.yawRateDegreesPerSecond;
     }
 
         /**
@@ -216,7 +569,13 @@ public class DriveTrain extends SubsystemBase {
      */
     @Override
     public void periodic() {
+        poseEstimator.update(inputs);
+        field.setRobotPose(poseEstimator.getPose());
 
+        if (profile != null) {
+            // Nothing writes to the DifferentialDrive while the Talons run the profile
+            differentialDrive.feed();
+        }
     }
 
     /**
@@ -226,15 +585,48 @@ public class DriveTrain extends SubsystemBase {
      */
     @Override
     public void simulationPeriodic() {
-        
-
-    }
-
-    public WPI_TalonSRX getRightFollower() {
-        return rightFollower;
+        io.simulationPeriodic();
+        io.updateField(field);
     }
 
-    public WPI_TalonSRX getLeftFollower() {
-        return leftFollower;
+    /**
+     * Holds the output DifferentialDrive calculated for one side, so both sides
+     * can be sent to the IO in a single call
+     */
+    private class OutputMotor implements MotorController {
+        private double output;
+        private boolean inverted;
+
+        @Override
+        public void set(double speed) {
+            output = inverted ? -speed : speed;
+        }
+
+        @Override
+        public double get() {
+            return output;
+        }
+
+        @Override
+        public void setInverted(boolean isInverted) {
+            inverted = isInverted;
+        }
+
+        @Override
+        public boolean getInverted() {
+            return inverted;
+        }
+
+        @Override
+        public void disable() {
+            stopMotor();
+        }
+
+        @Override
+        public void stopMotor() {
+            // Called by the motor safety watchdog when the drive stops being fed
+            output = 0;
+            io.setOutput(leftMotor.output, rightMotor.output);
+        }
     }
 }
@@ -11,12 +11,15 @@
 
 package bhs.devilbotz.subsystems;
 
-import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import bhs.devilbotz.subsystems.inputs.IntakeInputs;
+import bhs.devilbotz.subsystems.io.IntakeIO;
+import bhs.devilbotz.utils.Telemetry;
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInWidgets;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import io.github.oblarg.oblog.annotations.Config;
 
@@ -35,17 +38,58 @@ public class Intake extends SubsystemBase {
     private final NetworkTableEntry toggleWidget = driveTab.add("Intake On?", false).withSize(1, 1).withPosition(6, 0).getEntry();
 
 
-    private final WPI_TalonSRX intakeMotor;
+    private final IntakeIO io;
+    private double output;
+    private final IntakeInputs inputs = new IntakeInputs();
     double numSCurrentOver = 0;
 
+    private final Telemetry.DoubleSignal statorCurrentSignal = Telemetry.number("Intake S_Current", 10);
+    private final Telemetry.BooleanSignal statorOverSignal = Telemetry.bool("Intake S_OVER");
+    private final Telemetry.BooleanSignal statorOffSignal = Telemetry.bool("Intake S_OFF");
+
 
     /**
      * Constructor for Intake subsystem
+     *
+     * @param io the intake hardware
+     */
+    public Intake(IntakeIO io) {
+        this.io = io;
+    }
+
+    /**
+     * Reads every Intake sensor once. The rest of the loop uses these values.
+     *
+     * @param timestamp the FPGA timestamp of the snapshot in seconds
+     *
+     * @since 1.0.6
      */
-    public Intake() {
-        intakeMotor = new WPI_TalonSRX(7);
+    public void updateInputs(double timestamp) {
+        inputs.timestamp = timestamp;
+        io.updateInputs(inputs);
+    }
 
-        addChild("IntakeMotor", intakeMotor);
+    /**
+     * Adds the Intake inputs and outputs to the binary log
+     *
+     * @param log the log to register with
+     *
+     * @since 1.0.6
+     */
+    public void registerLogSignals(BinaryLog log) {
+        inputs.toLog(log, "Intake/");
+        log.addFloat("Intake/Output", () -> output);
+    }
+
+    /**
+     * Replaces the Intake sensor readings with a recorded log
+     *
+     * @param replay the replay to bind to
+     *
+     * @since 1.0.6
+     */
+    public void registerReplay(LogReplay replay) {
+        inputs.fromLog(replay, "Intake/");
     }
 
     /**
@@ -55,20 +99,21 @@ public class Intake extends SubsystemBase {
      */
     @Override
     public void periodic() {
-        double s_current = intakeMotor.getStatorCurrent();
-        SmartDashboard.putNumber("Intake S_Current", s_current);
+        double s_current = inputs.statorCurrent;
+        statorCurrentSignal.set(s_current);
         if (s_current > 20.0) {
-            SmartDashboard.putBoolean("Intake S_OVER", true);
+            statorOverSignal.set(true);
             numSCurrentOver++;
         } else {
-            SmartDashboard.putBoolean("Intake S_OVER", false);
+            statorOverSignal.set(false);
             numSCurrentOver = 0;
         }
         if (numSCurrentOver > 20) {
-            SmartDashboard.putBoolean("Intake S_OFF", true);
-            intakeMotor.set(0);
+            statorOffSignal.set(true);
+            io.setOutput(0);
+            output = 0;
         } else {
-            SmartDashboard.putBoolean("Intake S_OFF", false);
+            statorOffSignal.set(false);
         }
     }
 
@@ -84,14 +129,15 @@ public class Intake extends SubsystemBase {
 
     public void set(double speed) {
         intakeSpeedWidget.setDouble(speed);
-        intakeMotor.set(speed);
+        io.setOutput(speed);
+        output = speed;
         toggleWidget.setBoolean(true);
 
     }
 
     public void stop() {
-        intakeMotor.set(0);
-        intakeMotor.stopMotor();
+        io.stop();
+        output = 0;
         toggleWidget.setBoolean(false);
     }
 
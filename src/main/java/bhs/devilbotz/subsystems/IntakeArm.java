@@ -1,6 +1,7 @@
 package bhs.devilbotz.subsystems;
 
 import bhs.devilbotz.commands.intakeArm.IntakeArmUp;
+import bhs.devilbotz.utils.log.BinaryLog;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInWidgets;
@@ -48,6 +49,19 @@ public class IntakeArm extends SubsystemBase {
         intakeArmMotor.set(0);
     }
 
+    /**
+     * Adds the IntakeArm inputs and outputs to the binary log
+     *
+     * @param log the log to register with
+     *
+     * @since 1.0.6
+     */
+    public void registerLogSignals(BinaryLog log) {
+        log.addFloat("IntakeArm/Output", intakeArmMotor::get);
+        log.addBoolean("IntakeArm/Up", () -> intakeArmUp);
+        log.addBoolean("IntakeArm/DefenseMode", () -> defenseMode);
+    }
+
     /**
      * This method will be called once per scheduler run when
      *
@@ -4,6 +4,9 @@
 
 package bhs.devilbotz.subsystems;
 
+import bhs.devilbotz.subsystems.inputs.PowerDistributionInputs;
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
 import edu.wpi.first.wpilibj.PowerDistribution;
 import edu.wpi.first.wpilibj.PowerDistribution.ModuleType;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
@@ -12,6 +15,7 @@ import io.github.oblarg.oblog.annotations.Log;
 
 public class PowerDistributionPanel extends SubsystemBase {// implements Loggable{
   PowerDistribution pdp = new PowerDistribution(0, ModuleType.kCTRE);
+  private final PowerDistributionInputs inputs = new PowerDistributionInputs();
 
   /** Creates a new PowerDistributionPanel. */
   public PowerDistributionPanel() {
@@ -27,6 +31,24 @@ public class PowerDistributionPanel extends SubsystemBase {// implements Loggabl
     return pdp;
   }
 
+  /** Reads the PDP once. The rest of the loop uses these values. */
+  public void updateInputs(double timestamp) {
+    inputs.timestamp = timestamp;
+    inputs.voltage = pdp.getVoltage();
+    inputs.totalCurrent = pdp.getTotalCurrent();
+    inputs.temperature = pdp.getTemperature();
+  }
+
+  /** Adds the PDP signals to the binary log. */
+  public void registerLogSignals(BinaryLog log) {
+    inputs.toLog(log, "PDP/");
+  }
+
+  /** Replaces the PDP readings with a recorded log. */
+  public void registerReplay(LogReplay replay) {
+    inputs.fromLog(replay, "PDP/");
+  }
+
   /*
   // displays this to first column and row (0,0)
   @Log(name = "PDP Temp", tabName = "PowerDistributionPanel",   columnIndex = 0, rowIndex = 0, height = 1, width = 1)
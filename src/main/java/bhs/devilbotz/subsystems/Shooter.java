@@ -13,14 +13,16 @@ package bhs.devilbotz.subsystems;
 
 import bhs.devilbotz.commands.autonomous.shooter.SetHighGoal;
 import bhs.devilbotz.commands.autonomous.shooter.SetLowGoal;
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.RelativeEncoder;
-import com.revrobotics.SparkMaxPIDController;
+import bhs.devilbotz.subsystems.inputs.ShooterInputs;
+import bhs.devilbotz.subsystems.io.ShooterIO;
+import bhs.devilbotz.utils.SimParameters;
+import bhs.devilbotz.utils.Telemetry;
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
@@ -41,26 +43,42 @@ public class Shooter extends SubsystemBase {
 
     boolean isAuto = false;
 
-    private final CANSparkMax shooterMotor;
-
-    private final SparkMaxPIDController pidController;
-    private final RelativeEncoder encoder;
+    private final ShooterIO io;
+    private final ShooterControlLoop controlLoop;
+    private final ShooterInputs inputs = new ShooterInputs();
 
     public double kP, kI, kD, kIz, kFF, kMaxOutput, kMinOutput, maxRPM;
 
+    // Read up front so a simulation sweep sees both goals used
+    private final double pidP = SimParameters.get(ShooterControlLoop.KP_PARAMETER, 0.00015);
+    private final double highGoalFF = SimParameters.get(ShooterControlLoop.HIGH_GOAL_KFF_PARAMETER, 0.000172);
+    private final double lowGoalFF = SimParameters.get(ShooterControlLoop.LOW_GOAL_KFF_PARAMETER, 0.000174);
+
     public boolean PIDEnabled = false;
     double setPoint;
+    private double output;
+
+    // Dashboard
+    private final Telemetry.TunableNumber pGain;
+    private final Telemetry.TunableNumber iGain;
+    private final Telemetry.TunableNumber dGain;
+    private final Telemetry.TunableNumber iZone;
+    private final Telemetry.TunableNumber feedForward;
+    private final Telemetry.TunableNumber maxOutput;
+    private final Telemetry.TunableNumber minOutput;
+    private final Telemetry.DoubleSignal setPointSignal = Telemetry.number("SetPoint", 10);
+    private final Telemetry.DoubleSignal processVariableSignal = Telemetry.number("ProcessVariable", 10);
+    private final Telemetry.BooleanSignal atSetpointSignal = Telemetry.bool("AtSetpoint");
+    private final Telemetry.BooleanSignal atSetpointWidgetSignal = Telemetry.bool(atSetpointWidget, 0);
 
     /**
      * Constructor for Shooter subsystem
+     *
+     * @param io the shooter hardware
      */
-    public Shooter() {
-        shooterMotor = new CANSparkMax(8, CANSparkMax.MotorType.kBrushless);
-        shooterMotor.setInverted(true);
-
-        pidController = shooterMotor.getPIDController();
-
-        encoder = shooterMotor.getEncoder();
+    public Shooter(ShooterIO io) {
+        this.io = io;
+        controlLoop = new ShooterControlLoop(io);
 
         setHighGoal();
 
@@ -70,50 +88,42 @@ public class Shooter extends SubsystemBase {
         Shuffleboard.getTab("Drive").add("Goal Chooser", goalChooser).withSize(2, 1).withPosition(0, 1);
 
 
-        SmartDashboard.putNumber("P Gain", kP);
-        SmartDashboard.putNumber("I Gain", kI);
-        SmartDashboard.putNumber("D Gain", kD);
-        SmartDashboard.putNumber("I Zone", kIz);
-        SmartDashboard.putNumber("Feed Forward", kFF);
-        SmartDashboard.putNumber("Max Output", kMaxOutput);
-        SmartDashboard.putNumber("Min Output", kMinOutput);
+        pGain = Telemetry.tunable("P Gain", kP);
+        iGain = Telemetry.tunable("I Gain", kI);
+        dGain = Telemetry.tunable("D Gain", kD);
+        iZone = Telemetry.tunable("I Zone", kIz);
+        feedForward = Telemetry.tunable("Feed Forward", kFF);
+        maxOutput = Telemetry.tunable("Max Output", kMaxOutput);
+        minOutput = Telemetry.tunable("Min Output", kMinOutput);
     }
 
     public void setHighGoal() {
-        kP = 0.00015;
+        kP = pidP;
         kI = 0.00000002;
         kD = 0;
         kIz = 0;
-        kFF = 0.000172;
+        kFF = highGoalFF;
         kMaxOutput = 1;
         kMinOutput = -1;
         maxRPM = 5200;
 
-        pidController.setP(kP);
-        pidController.setI(kI);
-        pidController.setD(kD);
-        pidController.setIZone(kIz);
-        pidController.setFF(kFF);
-        pidController.setOutputRange(kMinOutput, kMaxOutput);
+        controlLoop.setPID(kP, kI, kD, kIz, kFF);
+        controlLoop.setOutputRange(kMinOutput, kMaxOutput);
         setSetPoint(-3050);
     }
 
     public void setLowGoal() {
-        kP = 0.00015;
+        kP = pidP;
         kI = 0.00000002;
         kD = 0;
         kIz = 0;
-        kFF = 0.000174;
+        kFF = lowGoalFF;
         kMaxOutput = 1;
         kMinOutput = -1;
         maxRPM = 5200;
 
-        pidController.setP(kP);
-        pidController.setI(kI);
-        pidController.setD(kD);
-        pidController.setIZone(kIz);
-        pidController.setFF(kFF);
-        pidController.setOutputRange(kMinOutput, kMaxOutput);
+        controlLoop.setPID(kP, kI, kD, kIz, kFF);
+        controlLoop.setOutputRange(kMinOutput, kMaxOutput);
         setSetPoint(-2100);
     }
 
@@ -121,6 +131,56 @@ public class Shooter extends SubsystemBase {
         shooterSpeedWidget.setDouble(speed);
     }
 
+    /**
+     * Starts the 200 Hz flywheel control loop. Until it is started, the loop runs
+     * from {@link #periodic()} at the scheduler rate instead.
+     *
+     * @since 1.0.6
+     */
+    public void startControlLoop() {
+        controlLoop.start();
+    }
+
+    /**
+     * Reads every Shooter sensor once. The rest of the loop uses these values.
+     *
+     * @param timestamp the FPGA timestamp of the snapshot in seconds
+     *
+     * @since 1.0.6
+     */
+    public void updateInputs(double timestamp) {
+        inputs.timestamp = timestamp;
+        io.updateInputs(inputs);
+    }
+
+    /**
+     * Adds the Shooter inputs and outputs to the binary log
+     *
+     * @param log the log to register with
+     *
+     * @since 1.0.6
+     */
+    public void registerLogSignals(BinaryLog log) {
+        inputs.toLog(log, "Shooter/");
+        log.addFloat("Shooter/SetPoint", () -> setPoint);
+        log.addBoolean("Shooter/PIDEnabled", () -> PIDEnabled);
+        log.addBoolean("Shooter/IsAuto", () -> isAuto);
+        log.addFloat("Shooter/Output", () -> output);
+        log.addBoolean("Shooter/AtSetpoint", controlLoop::isAtSetpoint);
+        log.addBoolean("Shooter/ReadyToFeed", controlLoop::isReadyToFeed);
+    }
+
+    /**
+     * Replaces the Shooter sensor readings with a recorded log
+     *
+     * @param replay the replay to bind to
+     *
+     * @since 1.0.6
+     */
+    public void registerReplay(LogReplay replay) {
+        inputs.fromLog(replay, "Shooter/");
+    }
+
     /**
      * This method will be called once per scheduler run when
      *
@@ -128,33 +188,37 @@ public class Shooter extends SubsystemBase {
      */
     @Override
     public void periodic() {
-        double p = SmartDashboard.getNumber("P Gain", 0);
-        double i = SmartDashboard.getNumber("I Gain", 0);
-        double d = SmartDashboard.getNumber("D Gain", 0);
-        double iz = SmartDashboard.getNumber("I Zone", 0);
-        double ff = SmartDashboard.getNumber("Feed Forward", 0);
-        double max = SmartDashboard.getNumber("Max Output", 0);
-        double min = SmartDashboard.getNumber("Min Output", 0);
-
-        if((p != kP)) { pidController.setP(p); kP = p; }
-        if((i != kI)) { pidController.setI(i); kI = i; }
-        if((d != kD)) { pidController.setD(d); kD = d; }
-        if((iz != kIz)) { pidController.setIZone(iz); kIz = iz; }
-        if((ff != kFF)) { pidController.setFF(ff); kFF = ff; }
+        if (!controlLoop.isRunning()) {
+            controlLoop.update(inputs.velocity, inputs.appliedOutput, inputs.timestamp);
+        }
+
+        double p = pGain.get();
+        double i = iGain.get();
+        double d = dGain.get();
+        double iz = iZone.get();
+        double ff = feedForward.get();
+        double max = maxOutput.get();
+        double min = minOutput.get();
+
+        if((p != kP) || (i != kI) || (d != kD) || (iz != kIz) || (ff != kFF)) {
+            controlLoop.setPID(p, i, d, iz, ff);
+            kP = p; kI = i; kD = d; kIz = iz; kFF = ff;
+        }
         if((max != kMaxOutput) || (min != kMinOutput)) {
-            pidController.setOutputRange(min, max);
+            controlLoop.setOutputRange(min, max);
             kMinOutput = min; kMaxOutput = max;
         }
 
         if (PIDEnabled) {
+            // The control loop picks up the new setpoint on its next iteration
             setPoint = -shooterSpeedWidget.getDouble(3000);
-            pidController.setReference(setPoint, CANSparkMax.ControlType.kVelocity);
+            controlLoop.setSetPoint(setPoint);
 
-            SmartDashboard.putNumber("SetPoint", setPoint);
-            SmartDashboard.putNumber("ProcessVariable", encoder.getVelocity());
+            setPointSignal.set(setPoint);
+            processVariableSignal.set(inputs.velocity);
 
             // Shuffleboard widget
-            SmartDashboard.putBoolean("AtSetpoint", atSetpoint());
+            atSetpointSignal.set(atSetpoint());
         }
     }
 
@@ -165,17 +229,36 @@ public class Shooter extends SubsystemBase {
      */
     @Override
     public void simulationPeriodic() {
-
+        io.simulationPeriodic();
     }
 
     public boolean atSetpoint() {
+        boolean atSetpoint = controlLoop.isAtSetpoint();
+        atSetpointWidgetSignal.set(atSetpoint);
+
+        return atSetpoint;
+    }
 
-        double velocity = encoder.getVelocity();
-        double tolerance = 35;
-        double error = velocity - setPoint;
-        atSetpointWidget.setBoolean(Math.abs(error) <= tolerance);
+    /**
+     * Gets if the flywheel has been stable at the setpoint long enough to feed a ball
+     *
+     * @return true if a ball can be fed
+     *
+     * @since 1.0.6
+     */
+    public boolean isReadyToFeed() {
+        return controlLoop.isReadyToFeed();
+    }
 
-        return Math.abs(error) <= tolerance;
+    /**
+     * Gets the number of shots detected by the control loop
+     *
+     * @return the shot count
+     *
+     * @since 1.0.6
+     */
+    public int getShotCount() {
+        return controlLoop.getShotCount();
     }
 
     public void setIsAuto(boolean isAuto) {
@@ -183,32 +266,68 @@ public class Shooter extends SubsystemBase {
     }
 
     public void set(double speed) {
-        System.out.println(shooterMotor.getEncoder().getVelocity());
-        shooterMotor.set(speed);
+        controlLoop.setOutput(speed);
+        output = speed;
         isAuto = false;
     }
 
+    /**
+     * Gets the flywheel setpoint
+     *
+     * @return the setpoint in RPM
+     *
+     * @since 1.0.6
+     */
+    public double getSetPoint() {
+        return setPoint;
+    }
+
+    /**
+     * Gets the flywheel velocity
+     *
+     * @return the velocity in RPM
+     *
+     * @since 1.0.6
+     */
+    public double getVelocity() {
+        return inputs.velocity;
+    }
+
     public boolean isAuto() {
         return isAuto;
     }
 
     public void enable() {
+        if (!controlLoop.isEnabled()) {
+            setPoint = -shooterSpeedWidget.getDouble(3000);
+            controlLoop.enable(setPoint);
+        }
         PIDEnabled = true;
     }
 
     public void disable() {
         PIDEnabled = false;
+        controlLoop.disable();
     }
 
     public void stop() {
-        shooterMotor.set(0);
-        shooterMotor.stopMotor();
+        controlLoop.stopMotor();
+        output = 0;
     }
 
     public NetworkTableEntry getShooterSpeedWidget() {
         return shooterSpeedWidget;
     }
 
+    /**
+     * Clears the at setpoint indicator on the Drive tab
+     *
+     * @since 1.0.6
+     */
+    public void clearAtSetpointWidget() {
+        atSetpointWidgetSignal.set(false);
+    }
+
     public NetworkTableEntry getAtSetpointWidget() {
         return atSetpointWidget;
     }
@@ -0,0 +1,453 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems;
+
+import bhs.devilbotz.Constants;
+import bhs.devilbotz.subsystems.inputs.ShooterInputs;
+import bhs.devilbotz.subsystems.io.ShooterIO;
+import bhs.devilbotz.utils.LatencyHistogram;
+import bhs.devilbotz.utils.SimParameters;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.controller.LinearQuadraticRegulator;
+import edu.wpi.first.math.estimator.KalmanFilter;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.system.LinearSystem;
+import edu.wpi.first.math.system.LinearSystemLoop;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Flywheel control loop for the {@link Shooter} that runs on its own 200 Hz {@link Notifier},
+ * independent of the 50 Hz CommandScheduler.
+ * <p>
+ * The loop reads the flywheel velocity, sends a new velocity reference only when the setpoint changes,
+ * and decides when a ball may be fed. A ball is only fed once the flywheel has stayed within tolerance
+ * for several samples, and a drop out of tolerance after that is counted as a shot.
+ * <p>
+ * The velocity is always passed through a Kalman filter built from the flywheel model, and the
+ * tolerance checks use the filtered estimate. With {@link Constants.ShooterConstants#STATE_SPACE_CONTROL}
+ * set, an LQR on the same model computes the motor voltage instead of the SPARK MAX velocity PID.
+ * A simulation sweep can pick the controller and its tolerances through {@link SimParameters}.
+ * <p>
+ * Commands hand setpoints to the loop through volatile fields and read its state the same way.
+ * Everything that sends an output to the {@link ShooterIO} holds the same lock, so a stop from the robot
+ * thread can never be overwritten by a loop iteration that was already in flight.
+ * <p>
+ * Jitter, execution time and shot recovery time are published to the "ShooterLoop" NetworkTable once a second.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class ShooterControlLoop {
+    public static final double PERIOD = 0.005;
+
+    // Simulation sweep parameters for the SPARK MAX PID, see useStateSpaceControl()
+    static final String KP_PARAMETER = "Shooter/kP";
+    static final String HIGH_GOAL_KFF_PARAMETER = "Shooter/High Goal kFF";
+    static final String LOW_GOAL_KFF_PARAMETER = "Shooter/Low Goal kFF";
+    private static final long PERIOD_MICROS = (long) (PERIOD * 1e6);
+
+    private static final double TOLERANCE_RPM = 35;
+    // The flywheel must stay in tolerance this many samples in a row before feeding
+    private static final int SETTLE_SAMPLES = 4;
+    // A drop this far below the setpoint while ready means a ball went through
+    private static final double SHOT_DROP_RPM = 150;
+
+    private static final int PUBLISH_PERIOD_LOOPS = 200;
+
+    // The period the loop runs at when it is stepped from the robot loop
+    private static final double ROBOT_PERIOD = 0.02;
+
+    private final ShooterIO io;
+    private final Notifier notifier;
+    private final Object lock = new Object();
+    private final ShooterInputs loopInputs = new ShooterInputs();
+
+    private final LinearSystem<N1, N1, N1> flywheelPlant = LinearSystemId.createFlywheelSystem(DCMotor.getNEO(1),
+            Constants.ShooterConstants.MOMENT_OF_INERTIA_KG_METERS_SQUARED, Constants.ShooterConstants.GEARING);
+    private LinearSystemLoop<N1, N1, N1> stateSpaceLoop = createStateSpaceLoop(ROBOT_PERIOD);
+    private final boolean stateSpaceControl = useStateSpaceControl();
+
+    // Written by the robot thread, read by the loop
+    private volatile boolean enabled = false;
+    private volatile double setPoint = 0;
+
+    // Written by the loop, read by the robot thread
+    private volatile boolean running = false;
+    private volatile double velocity;
+    private volatile boolean atSetpoint;
+    private volatile boolean readyToFeed;
+    private volatile int shotCount;
+
+    // Only touched by whichever thread runs the loop
+    private boolean wasEnabled = false;
+    private long lastStepMicros;
+    private double lastSentSetPoint = Double.NaN;
+    private int settledSamples;
+    private boolean recovering;
+    private long recoveryStartMicros;
+    private long lastStartMicros;
+    private int loopsSincePublish;
+
+    // 50 microsecond buckets covering 0 - 10 ms, and 5 ms buckets covering 0 - 2.5 s
+    private final LatencyHistogram jitterHistogram = new LatencyHistogram(50_000, 200);
+    private final LatencyHistogram executeHistogram = new LatencyHistogram(50_000, 200);
+    private final LatencyHistogram recoveryHistogram = new LatencyHistogram(5_000_000, 500);
+    private final NetworkTable table = NetworkTableInstance.getDefault().getTable("ShooterLoop");
+    // Published from the loop thread, so these are entries rather than Telemetry signals
+    private final NetworkTableEntry jitterP50Entry = table.getEntry("Jitter/p50 ms");
+    private final NetworkTableEntry jitterP99Entry = table.getEntry("Jitter/p99 ms");
+    private final NetworkTableEntry jitterMaxEntry = table.getEntry("Jitter/max ms");
+    private final NetworkTableEntry executeP50Entry = table.getEntry("Execute/p50 ms");
+    private final NetworkTableEntry executeP99Entry = table.getEntry("Execute/p99 ms");
+    private final NetworkTableEntry executeMaxEntry = table.getEntry("Execute/max ms");
+    private final NetworkTableEntry recoveryMeanEntry = table.getEntry("Recovery/mean ms");
+    private final NetworkTableEntry recoveryMaxEntry = table.getEntry("Recovery/max ms");
+    private final NetworkTableEntry shotsEntry = table.getEntry("Shots");
+
+    /**
+     * ShooterControlLoop constructor
+     *
+     * @param io the shooter hardware the loop controls
+     *
+     * @since 1.0.6
+     */
+    public ShooterControlLoop(ShooterIO io) {
+        this.io = io;
+        notifier = new Notifier(this::run);
+        notifier.setName("ShooterControlLoop");
+    }
+
+    /**
+     * Starts running the loop on its own thread
+     *
+     * @since 1.0.6
+     */
+    public void start() {
+        // The gains depend on the period, so rebuild the controller for the faster rate
+        synchronized (lock) {
+            stateSpaceLoop = createStateSpaceLoop(PERIOD);
+        }
+        running = true;
+        notifier.startPeriodic(PERIOD);
+    }
+
+    /**
+     * Stops the loop thread
+     *
+     * @since 1.0.6
+     */
+    public void stop() {
+        notifier.stop();
+        running = false;
+    }
+
+    /**
+     * Gets if the loop is running on its own thread. When it is not, the owner has to
+     * call {@link #update(double, double)} from the robot loop instead.
+     *
+     * @return true if the notifier is running
+     *
+     * @since 1.0.6
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long startNanos = System.nanoTime();
+        long startMicros = RobotController.getFPGATime();
+        if (lastStartMicros != 0) {
+            jitterHistogram.record(Math.abs(startMicros - lastStartMicros - PERIOD_MICROS) * 1000);
+        }
+        lastStartMicros = startMicros;
+
+        synchronized (lock) {
+            io.updateInputs(loopInputs);
+            step(loopInputs.velocity, loopInputs.appliedOutput, startMicros);
+        }
+
+        executeHistogram.record(System.nanoTime() - startNanos);
+        loopsSincePublish++;
+        if (loopsSincePublish >= PUBLISH_PERIOD_LOOPS) {
+            loopsSincePublish = 0;
+            publish();
+        }
+    }
+
+    /**
+     * Runs one loop iteration on the calling thread with a velocity that was already read.
+     * This is used when the loop thread is not running, such as when replaying a log.
+     *
+     * @param velocity the flywheel velocity in RPM
+     * @param appliedOutput the motor controller output, from -1 to 1
+     * @param timestamp the time of the reading in seconds
+     *
+     * @since 1.0.6
+     */
+    public void update(double velocity, double appliedOutput, double timestamp) {
+        synchronized (lock) {
+            step(velocity, appliedOutput, (long) (timestamp * 1e6));
+        }
+    }
+
+    /**
+     * Picks the controller. A simulation sweep of the PID gains forces the SPARK MAX PID, since the gains
+     * do nothing with the LQR. Otherwise "Shooter/State Space" can override the constant.
+     */
+    private static boolean useStateSpaceControl() {
+        if (SimParameters.isOverridden(KP_PARAMETER) || SimParameters.isOverridden(HIGH_GOAL_KFF_PARAMETER)
+                || SimParameters.isOverridden(LOW_GOAL_KFF_PARAMETER)) {
+            return false;
+        }
+        return SimParameters.get("Shooter/State Space", Constants.ShooterConstants.STATE_SPACE_CONTROL ? 1 : 0) != 0;
+    }
+
+    private LinearSystemLoop<N1, N1, N1> createStateSpaceLoop(double period) {
+        KalmanFilter<N1, N1, N1> observer = new KalmanFilter<>(Nat.N1(), Nat.N1(), flywheelPlant,
+                VecBuilder.fill(SimParameters.get("Shooter/Model Std Dev", Constants.ShooterConstants.MODEL_STD_DEV)),
+                VecBuilder.fill(SimParameters.get("Shooter/Measurement Std Dev",
+                        Constants.ShooterConstants.MEASUREMENT_STD_DEV)), period);
+        LinearQuadraticRegulator<N1, N1, N1> controller = new LinearQuadraticRegulator<>(flywheelPlant,
+                VecBuilder.fill(SimParameters.get("Shooter/Velocity Error Tolerance",
+                        Constants.ShooterConstants.VELOCITY_ERROR_TOLERANCE)),
+                VecBuilder.fill(SimParameters.get("Shooter/Control Effort Tolerance",
+                        Constants.ShooterConstants.CONTROL_EFFORT_TOLERANCE)), period);
+        return new LinearSystemLoop<>(flywheelPlant, controller, observer, 12.0, period);
+    }
+
+    private void step(double measuredVelocity, double appliedOutput, long nowMicros) {
+        double dt = lastStepMicros == 0 ? PERIOD : (nowMicros - lastStepMicros) / 1e6;
+        lastStepMicros = nowMicros;
+        if (dt <= 0 || dt > 0.1) {
+            dt = running ? PERIOD : ROBOT_PERIOD;
+        }
+
+        boolean enabledNow = enabled;
+        boolean useStateSpace = enabledNow && stateSpaceControl;
+        double measured = Units.rotationsPerMinuteToRadiansPerSecond(measuredVelocity);
+        if (useStateSpace && !wasEnabled) {
+            stateSpaceLoop.reset(VecBuilder.fill(measured));
+        }
+        wasEnabled = enabledNow;
+
+        if (useStateSpace) {
+            stateSpaceLoop.setNextR(VecBuilder.fill(Units.rotationsPerMinuteToRadiansPerSecond(setPoint)));
+            stateSpaceLoop.correct(VecBuilder.fill(measured));
+            stateSpaceLoop.predict(dt);
+            io.setVoltage(stateSpaceLoop.getU(0));
+        } else {
+            // Keep the estimate tracking the flywheel using the voltage the motor controller chose
+            KalmanFilter<N1, N1, N1> observer = stateSpaceLoop.getObserver();
+            observer.correct(VecBuilder.fill(appliedOutput * 12.0), VecBuilder.fill(measured));
+            observer.predict(VecBuilder.fill(appliedOutput * 12.0), dt);
+        }
+        double velocity = Units.radiansPerSecondToRotationsPerMinute(stateSpaceLoop.getXHat(0));
+        this.velocity = velocity;
+
+        if (!enabledNow) {
+            lastSentSetPoint = Double.NaN;
+            settledSamples = 0;
+            recovering = false;
+            atSetpoint = false;
+            readyToFeed = false;
+            return;
+        }
+
+        double target = setPoint;
+        if (target != lastSentSetPoint) {
+            if (!useStateSpace) {
+                io.setVelocity(target);
+            }
+            lastSentSetPoint = target;
+            settledSamples = 0;
+            // The error is now measured from the new target, so it is not a shot
+            readyToFeed = false;
+            recovering = false;
+        }
+
+        double error = Math.abs(velocity - target);
+        boolean inTolerance = error <= TOLERANCE_RPM;
+        settledSamples = inTolerance ? settledSamples + 1 : 0;
+        boolean ready = settledSamples >= SETTLE_SAMPLES;
+
+        if (readyToFeed && error >= SHOT_DROP_RPM) {
+            shotCount++;
+            recovering = true;
+            recoveryStartMicros = nowMicros;
+        }
+        if (recovering && ready) {
+            recoveryHistogram.record((nowMicros - recoveryStartMicros) * 1000);
+            recovering = false;
+        }
+
+        atSetpoint = inTolerance;
+        readyToFeed = ready;
+    }
+
+    private void publish() {
+        jitterP50Entry.setDouble(jitterHistogram.getPercentileMillis(0.50));
+        jitterP99Entry.setDouble(jitterHistogram.getPercentileMillis(0.99));
+        jitterMaxEntry.setDouble(jitterHistogram.getMaxMillis());
+        executeP50Entry.setDouble(executeHistogram.getPercentileMillis(0.50));
+        executeP99Entry.setDouble(executeHistogram.getPercentileMillis(0.99));
+        executeMaxEntry.setDouble(executeHistogram.getMaxMillis());
+        recoveryMeanEntry.setDouble(recoveryHistogram.getMeanMillis());
+        recoveryMaxEntry.setDouble(recoveryHistogram.getMaxMillis());
+        shotsEntry.setDouble(shotCount);
+    }
+
+    /**
+     * Starts closed loop velocity control
+     *
+     * @param setPoint the target velocity in RPM
+     *
+     * @since 1.0.6
+     */
+    public void enable(double setPoint) {
+        this.setPoint = setPoint;
+        enabled = true;
+    }
+
+    /**
+     * Changes the target velocity. Takes effect on the next loop iteration.
+     *
+     * @param setPoint the target velocity in RPM
+     *
+     * @since 1.0.6
+     */
+    public void setSetPoint(double setPoint) {
+        this.setPoint = setPoint;
+    }
+
+    /**
+     * Stops closed loop control, leaving the motor at its last output
+     *
+     * @since 1.0.6
+     */
+    public void disable() {
+        synchronized (lock) {
+            enabled = false;
+        }
+    }
+
+    /**
+     * Stops closed loop control and runs the flywheel open loop
+     *
+     * @param output percent output, from -1 to 1
+     *
+     * @since 1.0.6
+     */
+    public void setOutput(double output) {
+        synchronized (lock) {
+            enabled = false;
+            io.setOutput(output);
+        }
+    }
+
+    /**
+     * Stops closed loop control and the flywheel motor
+     *
+     * @since 1.0.6
+     */
+    public void stopMotor() {
+        synchronized (lock) {
+            enabled = false;
+            io.stop();
+        }
+    }
+
+    /**
+     * Configures the closed loop velocity gains
+     *
+     * @since 1.0.6
+     */
+    public void setPID(double p, double i, double d, double iZone, double ff) {
+        synchronized (lock) {
+            io.setPID(p, i, d, iZone, ff);
+        }
+    }
+
+    /**
+     * Limits the closed loop output
+     *
+     * @param min the minimum output
+     * @param max the maximum output
+     *
+     * @since 1.0.6
+     */
+    public void setOutputRange(double min, double max) {
+        synchronized (lock) {
+            io.setOutputRange(min, max);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getSetPoint() {
+        return setPoint;
+    }
+
+    /**
+     * Gets the filtered velocity from the latest loop iteration
+     *
+     * @return the flywheel velocity in RPM
+     *
+     * @since 1.0.6
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Gets if the latest velocity reading was within tolerance of the setpoint
+     *
+     * @return true if at the setpoint
+     *
+     * @since 1.0.6
+     */
+    public boolean isAtSetpoint() {
+        return atSetpoint;
+    }
+
+    /**
+     * Gets if the flywheel has been stable at the setpoint long enough to feed a ball
+     *
+     * @return true if a ball can be fed
+     *
+     * @since 1.0.6
+     */
+    public boolean isReadyToFeed() {
+        return readyToFeed;
+    }
+
+    /**
+     * Gets the number of shots detected from flywheel velocity drops
+     *
+     * @return the shot count
+     *
+     * @since 1.0.6
+     */
+    public int getShotCount() {
+        return shotCount;
+    }
+}
@@ -24,27 +24,27 @@ public class TalonSrxDiagnostic extends SubsystemBase implements Loggable {
 
     @Log(name = "LMV" , columnIndex = 0, rowIndex = 0, height = 1, width = 1)
     public double getleftVoltage(){ 
-        return driveTrain.getLeftMaster().getMotorOutputVoltage();
+        return driveTrain.getLeftAppliedVolts();
     }
     @Log(name = "RMV" , tabName = "TalonSrxDiagnostic", columnIndex = 1, rowIndex = 0, height = 1, width = 1)
     public double getrightVoltage(){ 
-        return driveTrain.getRightMaster().getMotorOutputVoltage();        
+        return driveTrain.getRightAppliedVolts();        
     }
     @Log(name = "LFV" , tabName = "TalonSrxDiagnostic", columnIndex = 2, rowIndex = 0, height = 1, width = 1)
     public double getleftVoltage1(){ 
-        return driveTrain.getLeftFollower().getMotorOutputVoltage();
+        return driveTrain.getLeftFollowerAppliedVolts();
     }
     @Log(name = "RFV" , tabName = "TalonSrxDiagnostic", columnIndex = 3, rowIndex = 0, height = 1, width = 1)
     public double getrightVoltage1(){ 
-        return driveTrain.getRightFollower().getMotorOutputVoltage();
+        return driveTrain.getRightFollowerAppliedVolts();
     }
     @Log(name = "LMS" , tabName = "Drive", columnIndex = 1, rowIndex = 0, height = 1, width = 1)
     public double getLeftVelocity(){
-        return driveTrain.getLeftMaster().getSelectedSensorVelocity();
+        return driveTrain.getLeftVelocity();
     }
     @Log(name = "RMS" , tabName = "Drive", columnIndex = 2, rowIndex = 0, height = 1, width = 1)
     public double getRightVelocity(){
-        return driveTrain.getRightMaster().getSelectedSensorVelocity();
+        return driveTrain.getRightVelocity();
     }
     
 }
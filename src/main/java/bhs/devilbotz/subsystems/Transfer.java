@@ -1,15 +1,16 @@
 package bhs.devilbotz.subsystems;
 
-import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import bhs.devilbotz.Constants;
+import bhs.devilbotz.subsystems.inputs.TransferInputs;
+import bhs.devilbotz.subsystems.io.TransferIO;
+import bhs.devilbotz.utils.Telemetry;
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
 import com.revrobotics.ColorMatch;
-import com.revrobotics.ColorSensorV3;
 import edu.wpi.first.networktables.NetworkTableEntry;
-import edu.wpi.first.wpilibj.Encoder;
-import edu.wpi.first.wpilibj.I2C;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInWidgets;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj.util.Color;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import io.github.oblarg.oblog.annotations.Log;
@@ -21,38 +22,99 @@ public class Transfer extends SubsystemBase {
         NONE
     }
 
-    BallColor ballColor = BallColor.NONE;
+    /**
+     * States of the ball indexer
+     */
+    public enum IndexState {
+        // Waiting for a ball at the color sensor
+        IDLE,
+        // Moving the ball a fixed distance up the transfer
+        ADVANCING,
+        // Holding the ball at its indexed position
+        HOLDING,
+        // Backing off after the encoder stalled while advancing
+        UNJAMMING
+    }
 
-    private final WPI_TalonSRX transferMotor;
-    private final I2C.Port i2cPort = I2C.Port.kMXP;
+    BallColor ballColor = BallColor.NONE;
 
-    private final Encoder encoder = new Encoder(9, 8);
+    private final TransferIO io;
+    private double output;
 
     private boolean intakeOut = false;
 
+    private final TransferInputs inputs = new TransferInputs();
+
+    // Indexer
+    private IndexState indexState = IndexState.IDLE;
+    private double indexTarget;
+    private double indexStateStartTime;
+    private double stallStartTime = Double.NaN;
+    private int jamCount = 0;
+    private final Telemetry.StringSignal indexStateSignal = Telemetry.string("Transfer Index State");
+    private final Telemetry.DoubleSignal jamCountSignal = Telemetry.number("Transfer Jams");
+
+    // Encoder distance when the latest ball reached the color sensor
+    private double ballArrivalDistance = Double.NaN;
+    private boolean ballWasPresent = false;
+
     // Shuffleboard
     ShuffleboardTab tab = Shuffleboard.getTab("LiveDebug");
     private final NetworkTableEntry transferSpeedWidget = tab.add("Set Transfer Speed", 1).withWidget(BuiltInWidgets.kNumberSlider).withSize(2, 1).withPosition(0, 2).getEntry();
 
     // Color sensor setup
-    private final ColorSensorV3 colorSensor = new ColorSensorV3(i2cPort);
+    private double colorMaxReadDuration = 0;
+    private final Telemetry.DoubleSignal colorSampleAgeSignal = Telemetry.number("Transfer Color Sample Age ms", 10);
+    private final Telemetry.DoubleSignal colorReadDurationSignal = Telemetry.number("Transfer Color Read ms", 10);
+    private final Telemetry.DoubleSignal colorMaxReadDurationSignal = Telemetry.number("Transfer Color Max Read ms", 10);
+    private final Telemetry.StringSignal ballColorSignal = Telemetry.string("BallColor");
     private final ColorMatch colorMatcher = new ColorMatch();
     private final Color blueTarget = new Color(0.100, 0.300, 0.300);
     private final Color redTarget = new Color(0.520, 0.354, 0.124);
 
-    public Transfer() {
-        transferMotor = new WPI_TalonSRX(6);
+    public Transfer(TransferIO io) {
+        this.io = io;
 
-        addChild("TransferMotor", transferMotor);
+        colorMatcher.addColorMatch(blueTarget);
+        colorMatcher.addColorMatch(redTarget);
+    }
 
-        setupColorSensor();
+    /**
+     * Reads every Transfer sensor once. The rest of the loop uses these values.
+     *
+     * @param timestamp the FPGA timestamp of the snapshot in seconds
+     *
+     * @since 1.0.6
+     */
+    public void updateInputs(double timestamp) {
+        inputs.timestamp = timestamp;
+        io.updateInputs(inputs);
+    }
 
-        encoder.setDistancePerPulse(0.1428571428571429);
+    /**
+     * Adds the Transfer inputs and outputs to the binary log
+     *
+     * @param log the log to register with
+     *
+     * @since 1.0.6
+     */
+    public void registerLogSignals(BinaryLog log) {
+        inputs.toLog(log, "Transfer/");
+        log.addFloat("Transfer/Output", () -> output);
+        log.addInt("Transfer/BallColor", () -> ballColor.ordinal());
+        log.addBoolean("Transfer/IntakeOut", () -> intakeOut);
+        log.addInt("Transfer/IndexState", () -> indexState.ordinal());
     }
 
-    private void setupColorSensor() {
-        colorMatcher.addColorMatch(blueTarget);
-        colorMatcher.addColorMatch(redTarget);
+    /**
+     * Replaces the Transfer sensor readings with a recorded log
+     *
+     * @param replay the replay to bind to
+     *
+     * @since 1.0.6
+     */
+    public void registerReplay(LogReplay replay) {
+        inputs.fromLog(replay, "Transfer/");
     }
 
     public BallColor getBallColor() {
@@ -60,20 +122,131 @@ public class Transfer extends SubsystemBase {
     }
 
     public boolean ballPresent() {
-        return colorSensor.getProximity() >= 175;
+        return inputs.proximity >= 175;
+    }
+
+    /**
+     * Gets if the latest ball has moved far enough past the color sensor to be staged at the flywheel
+     *
+     * @return true if the ball is staged, false if it is not or no ball has been seen
+     *
+     * @since 1.0.6
+     */
+    public boolean isBallStaged() {
+        return !Double.isNaN(ballArrivalDistance)
+                && inputs.encoderDistance - ballArrivalDistance >= Constants.TransferConstants.STAGE_DISTANCE;
     }
 
     public void set(double speed) {
-        transferMotor.set(speed);
+        io.setOutput(speed);
+        output = speed;
         transferSpeedWidget.setDouble(speed);
     }
 
     public void setOut(double speed) {
-        transferMotor.set(-speed);
+        io.setOutput(-speed);
+        output = -speed;
         transferSpeedWidget.setDouble(-speed);
         intakeOut = true;
     }
 
+    /**
+     * Runs one step of the ball indexer. Call this every loop while automatic indexing is wanted.
+     * <p>
+     * When a ball reaches the color sensor it is advanced a fixed encoder distance, then held at that
+     * position until it leaves the sensor. If the encoder stalls while advancing, the transfer backs off
+     * briefly and tries again. All timing uses the input timestamps, so the result does not depend on the
+     * loop rate.
+     *
+     * @since 1.0.6
+     */
+    public void updateIndexer() {
+        double now = inputs.timestamp;
+        double distance = inputs.encoderDistance;
+
+        switch (indexState) {
+            case IDLE:
+                if (ballPresent()) {
+                    indexTarget = distance + Constants.TransferConstants.INDEX_DISTANCE;
+                    stallStartTime = Double.NaN;
+                    setIndexState(IndexState.ADVANCING, now);
+                }
+                break;
+            case ADVANCING:
+                if (distance >= indexTarget || now - indexStateStartTime >= Constants.TransferConstants.INDEX_TIMEOUT) {
+                    setIndexState(IndexState.HOLDING, now);
+                    break;
+                }
+                setIndexOutput(Constants.TransferConstants.INDEX_OUTPUT);
+
+                if (Math.abs(inputs.encoderRate) < Constants.TransferConstants.JAM_RATE) {
+                    if (Double.isNaN(stallStartTime)) {
+                        stallStartTime = now;
+                    } else if (now - stallStartTime >= Constants.TransferConstants.JAM_TIME) {
+                        jamCount++;
+                        jamCountSignal.set(jamCount);
+                        setIndexState(IndexState.UNJAMMING, now);
+                    }
+                } else {
+                    stallStartTime = Double.NaN;
+                }
+                break;
+            case HOLDING:
+                if (!ballPresent()) {
+                    setIndexState(IndexState.IDLE, now);
+                    break;
+                }
+                double error = indexTarget - distance;
+                if (Math.abs(error) <= Constants.TransferConstants.HOLD_TOLERANCE) {
+                    setIndexOutput(0);
+                } else {
+                    double max = Constants.TransferConstants.HOLD_MAX_OUTPUT;
+                    setIndexOutput(Math.max(-max, Math.min(max, error * Constants.TransferConstants.HOLD_KP)));
+                }
+                break;
+            case UNJAMMING:
+                if (now - indexStateStartTime >= Constants.TransferConstants.UNJAM_TIME) {
+                    // Try again from the start, the ball is usually still at the sensor
+                    setIndexState(IndexState.IDLE, now);
+                    break;
+                }
+                setIndexOutput(Constants.TransferConstants.UNJAM_OUTPUT);
+                break;
+        }
+    }
+
+    /**
+     * Stops the indexer without touching the motor, for when something else is driving the transfer
+     *
+     * @since 1.0.6
+     */
+    public void resetIndexer() {
+        if (indexState != IndexState.IDLE) {
+            indexState = IndexState.IDLE;
+            indexStateStartTime = inputs.timestamp;
+            indexStateSignal.set(indexState.name());
+        }
+    }
+
+    public IndexState getIndexState() {
+        return indexState;
+    }
+
+    private void setIndexState(IndexState state, double timestamp) {
+        if (state == IndexState.IDLE || state == IndexState.HOLDING) {
+            setIndexOutput(0);
+        }
+        indexState = state;
+        indexStateStartTime = timestamp;
+        indexStateSignal.set(state.name());
+    }
+
+    private void setIndexOutput(double speed) {
+        // Skip the dashboard widget, this runs every loop
+        io.setOutput(speed);
+        output = speed;
+    }
+
     public void stop() {
         set(0);
         intakeOut = false;
@@ -88,23 +261,34 @@ public class Transfer extends SubsystemBase {
      */
     @Override
     public void periodic() {
-        Color detectedColor = colorSensor.getColor();
+        boolean present = ballPresent();
+        if (present && !ballWasPresent) {
+            ballArrivalDistance = inputs.encoderDistance;
+        }
+        ballWasPresent = present;
 
-        if (colorSensor.getProximity() > 175) {
-            if (detectedColor.red > detectedColor.blue) {
-                SmartDashboard.putString("BallColor", "RED");
+        if (inputs.proximity > 175) {
+            if (inputs.red > inputs.blue) {
+                ballColorSignal.set("RED");
                 ballColor = BallColor.RED;
-            } else if (detectedColor.blue > detectedColor.red && detectedColor.blue > .34) {
-                SmartDashboard.putString("BallColor", "BLUE");
+            } else if (inputs.blue > inputs.red && inputs.blue > .34) {
+                ballColorSignal.set("BLUE");
                 ballColor = BallColor.BLUE;
             } else {
-                SmartDashboard.putString("BallColor", "no color");
+                ballColorSignal.set("no color");
                 ballColor = BallColor.NONE;
             }
         } else {
-            SmartDashboard.putString("BallColor", "no ball");
+            ballColorSignal.set("no ball");
             ballColor = BallColor.NONE;
         }
+
+        if (inputs.colorReadDuration > colorMaxReadDuration) {
+            colorMaxReadDuration = inputs.colorReadDuration;
+        }
+        colorSampleAgeSignal.set((inputs.timestamp - inputs.colorTimestamp) * 1000);
+        colorReadDurationSignal.set(inputs.colorReadDuration);
+        colorMaxReadDurationSignal.set(colorMaxReadDuration);
     }
 
     /**
@@ -114,7 +298,7 @@ public class Transfer extends SubsystemBase {
      */
     @Override
     public void simulationPeriodic() {
-
+        io.simulationPeriodic();
     }
 
     public boolean isIntakeOut() {
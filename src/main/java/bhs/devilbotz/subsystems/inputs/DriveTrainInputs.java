@@ -0,0 +1,93 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.inputs;
+
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
+import bhs.devilbotz.utils.log.LoggableInputs;
+
+/**
+ * Snapshot of the DriveTrain sensors, read once at the start of every loop
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class DriveTrainInputs implements LoggableInputs {
+    // FPGA timestamp of the snapshot in seconds
+    public double timestamp;
+
+    // Talon SRX quadrature encoders, raw sensor units
+    public double leftPositionTicks;
+    public double rightPositionTicks;
+    public double leftVelocityTicks;
+    public double rightVelocityTicks;
+
+    // Talon SRX output voltages
+    public double leftAppliedVolts;
+    public double rightAppliedVolts;
+    public double leftFollowerAppliedVolts;
+    public double rightFollowerAppliedVolts;
+
+    // Talon SRX motion profile executor
+    public double leftProfilePosition;
+    public double rightProfilePosition;
+    public double leftProfileBufferedPoints;
+    public double rightProfileBufferedPoints;
+    public double profileUnderruns;
+    public boolean profileFinished;
+
+    // NAVX
+    public double yawDegrees;
+    public double yawRateDegreesPerSecond;
+
+    @Override
+    public void toLog(BinaryLog log, String prefix) {
+        log.addFloat(prefix + "LeftPositionTicks", () -> leftPositionTicks);
+        log.addFloat(prefix + "RightPositionTicks", () -> rightPositionTicks);
+        log.addFloat(prefix + "LeftVelocityTicks", () -> leftVelocityTicks);
+        log.addFloat(prefix + "RightVelocityTicks", () -> rightVelocityTicks);
+        log.addFloat(prefix + "LeftAppliedVolts", () -> leftAppliedVolts);
+        log.addFloat(prefix + "RightAppliedVolts", () -> rightAppliedVolts);
+        log.addFloat(prefix + "LeftFollowerAppliedVolts", () -> leftFollowerAppliedVolts);
+        log.addFloat(prefix + "RightFollowerAppliedVolts", () -> rightFollowerAppliedVolts);
+        log.addFloat(prefix + "LeftProfilePosition", () -> leftProfilePosition);
+        log.addFloat(prefix + "RightProfilePosition", () -> rightProfilePosition);
+        log.addFloat(prefix + "LeftProfileBufferedPoints", () -> leftProfileBufferedPoints);
+        log.addFloat(prefix + "RightProfileBufferedPoints", () -> rightProfileBufferedPoints);
+        log.addFloat(prefix + "ProfileUnderruns", () -> profileUnderruns);
+        log.addBoolean(prefix + "ProfileFinished", () -> profileFinished);
+        log.addFloat(prefix + "YawDegrees", () -> yawDegrees);
+        log.addFloat(prefix + "YawRate", () -> yawRateDegreesPerSecond);
+    }
+
+    @Override
+    public void fromLog(LogReplay replay, String prefix) {
+        replay.bindTimestamp(value -> timestamp = value);
+        replay.bindFloat(prefix + "LeftPositionTicks", value -> leftPositionTicks = value);
+        replay.bindFloat(prefix + "RightPositionTicks", value -> rightPositionTicks = value);
+        replay.bindFloat(prefix + "LeftVelocityTicks", value -> leftVelocityTicks = value);
+        replay.bindFloat(prefix + "RightVelocityTicks", value -> rightVelocityTicks = value);
+        replay.bindFloat(prefix + "LeftAppliedVolts", value -> leftAppliedVolts = value);
+        replay.bindFloat(prefix + "RightAppliedVolts", value -> rightAppliedVolts = value);
+        replay.bindFloat(prefix + "LeftFollowerAppliedVolts", value -> leftFollowerAppliedVolts = value);
+        replay.bindFloat(prefix + "RightFollowerAppliedVolts", value -> rightFollowerAppliedVolts = value);
+        replay.bindFloat(prefix + "LeftProfilePosition", value -> leftProfilePosition = value);
+        replay.bindFloat(prefix + "RightProfilePosition", value -> rightProfilePosition = value);
+        replay.bindFloat(prefix + "LeftProfileBufferedPoints", value -> leftProfileBufferedPoints = value);
+        replay.bindFloat(prefix + "RightProfileBufferedPoints", value -> rightProfileBufferedPoints = value);
+        replay.bindFloat(prefix + "ProfileUnderruns", value -> profileUnderruns = value);
+        replay.bindBoolean(prefix + "ProfileFinished", value -> profileFinished = value);
+        replay.bindFloat(prefix + "YawDegrees", value -> yawDegrees = value);
+        replay.bindFloat(prefix + "YawRate", value -> yawRateDegreesPerSecond = value);
+    }
+}
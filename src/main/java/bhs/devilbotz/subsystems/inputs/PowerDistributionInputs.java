@@ -0,0 +1,47 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.inputs;
+
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
+import bhs.devilbotz.utils.log.LoggableInputs;
+
+/**
+ * Snapshot of the Power Distribution Panel, read once at the start of every loop
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class PowerDistributionInputs implements LoggableInputs {
+    // FPGA timestamp of the snapshot in seconds
+    public double timestamp;
+
+    public double voltage;
+    public double totalCurrent;
+    public double temperature;
+
+    @Override
+    public void toLog(BinaryLog log, String prefix) {
+        log.addFloat(prefix + "Voltage", () -> voltage);
+        log.addFloat(prefix + "TotalCurrent", () -> totalCurrent);
+        log.addFloat(prefix + "Temperature", () -> temperature);
+    }
+
+    @Override
+    public void fromLog(LogReplay replay, String prefix) {
+        replay.bindTimestamp(value -> timestamp = value);
+        replay.bindFloat(prefix + "Voltage", value -> voltage = value);
+        replay.bindFloat(prefix + "TotalCurrent", value -> totalCurrent = value);
+        replay.bindFloat(prefix + "Temperature", value -> temperature = value);
+    }
+}
@@ -0,0 +1,66 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.inputs;
+
+import bhs.devilbotz.utils.log.BinaryLog;
+import bhs.devilbotz.utils.log.LogReplay;
+import bhs.devilbotz.utils.log.LoggableInputs;
+
+/**
+ * Snapshot of the Transfer sensors, read once at the start of every loop
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class TransferInputs implements LoggableInputs {
+    // FPGA timestamp of the snapshot in seconds
+    public double timestamp;
+
+    // Color sensor, sampled asynchronously at colorTimestamp
+    public double colorTimestamp;
+    public int proximity;
+    public double red;
+    public double green;
+    public double blue;
+    // Time the poller spent on the I2C reads in milliseconds
+    public double colorReadDuration;
+
+    // Transfer encoder
+    public double encoderDistance;
+    public double encoderRate;
+
+    @Override
+    public void toLog(BinaryLog log, String prefix) {
+        log.addDouble(prefix + "ColorTimestamp", () -> colorTimestamp);
+        log.addInt(prefix + "Proximity", () -> proximity);
+        log.addFloat(prefix + "Red", () -> red);
+        log.addFloat(prefix + "Green", () -> green);
+        log.addFloat(prefix + "Blue", () -> blue);
+        log.addFloat(prefix + "ColorReadDuration", () -> colorReadDuration);
+        log.addFloat(prefix + "EncoderDistance", () -> encoderDistance);
+        log.addFloat(prefix + "EncoderRate", () -> encoderRate);
+    }
+
+    @Override
+    public void fromLog(LogReplay replay, String prefix) {
+        replay.bindTimestamp(value -> timestamp = value);
+        replay.bindDouble(prefix + "ColorTimestamp", value -> colorTimestamp = value);
+        replay.bindInt(prefix + "Proximity", value -> proximity = value);
+        replay.bindFloat(prefix + "Red", value -> red = value);
+        replay.bindFloat(prefix + "Green", value -> green = value);
+        replay.bindFloat(prefix + "Blue", value -> blue = value);
+        replay.bindFloat(prefix + "ColorReadDuration", value -> colorReadDuration = value);
+        replay.bindFloat(prefix + "EncoderDistance", value -> encoderDistance = value);
+        replay.bindFloat(prefix + "EncoderRate", value -> encoderRate = value);
+    }
+}
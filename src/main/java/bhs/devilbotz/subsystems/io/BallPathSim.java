@@ -0,0 +1,147 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import java.util.ArrayList;
+
+/**
+ * Positions of the balls in the transfer, for simulating the color sensor and feeding the shooter.
+ * <p>
+ * Positions are in transfer encoder units from where the intake hands a ball over. Balls move with
+ * the transfer belt. A ball that reaches the shooter is shot, and a ball pushed back out through the
+ * intake is gone.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+class BallPathSim {
+    // Where the color sensor and the shooter flywheel are along the transfer
+    private static final double SENSOR_POSITION = 6;
+    private static final double SHOOTER_POSITION = 18;
+    // A ball pushed back this far has left through the intake
+    private static final double EJECT_POSITION = -4;
+    // How far from the color sensor a ball can be seen
+    private static final double SENSOR_RANGE = 2;
+
+    // Proximity reads 0 to 2047, and the Transfer sees a ball above 175
+    private static final int MAX_PROXIMITY = 2047;
+    private static final int BALL_EDGE_PROXIMITY = 200;
+    private static final int EMPTY_PROXIMITY = 60;
+
+    // Normalized colors as the sensor reports them
+    private static final double[] RED = {0.52, 0.35, 0.13};
+    private static final double[] BLUE = {0.15, 0.40, 0.45};
+    private static final double[] EMPTY = {0.33, 0.34, 0.33};
+
+    private final ArrayList<Ball> balls = new ArrayList<>();
+    private Runnable shotListener = () -> { };
+
+    /**
+     * Sets what to call when a ball leaves the transfer into the shooter
+     *
+     * @param shotListener called once per ball
+     */
+    void setShotListener(Runnable shotListener) {
+        this.shotListener = shotListener;
+    }
+
+    /**
+     * Adds a ball at the start of the transfer
+     *
+     * @param red true for a red ball, false for a blue ball
+     */
+    void loadBall(boolean red) {
+        balls.add(new Ball(0, red));
+    }
+
+    /**
+     * Loads the balls the robot starts a match with: one just below the color sensor, one behind it
+     *
+     * @param count the number of balls, up to two
+     * @param red true for red balls, false for blue balls
+     */
+    void preload(int count, boolean red) {
+        if (count > 0) {
+            balls.add(new Ball(SENSOR_POSITION - 1, red));
+        }
+        if (count > 1) {
+            balls.add(new Ball(SENSOR_POSITION - 9, red));
+        }
+    }
+
+    /**
+     * Moves every ball with the transfer belt
+     *
+     * @param travel the change in transfer encoder distance
+     */
+    void move(double travel) {
+        for (int i = balls.size() - 1; i >= 0; i--) {
+            Ball ball = balls.get(i);
+            ball.position += travel;
+            if (ball.position >= SHOOTER_POSITION) {
+                balls.remove(i);
+                shotListener.run();
+            } else if (ball.position < EJECT_POSITION) {
+                balls.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Gets the proximity the color sensor would report
+     *
+     * @return the proximity, higher is closer
+     */
+    int getProximity() {
+        Ball ball = getSeenBall();
+        if (ball == null) {
+            return EMPTY_PROXIMITY;
+        }
+        double closeness = 1 - Math.abs(ball.position - SENSOR_POSITION) / SENSOR_RANGE;
+        return (int) (BALL_EDGE_PROXIMITY + (MAX_PROXIMITY - BALL_EDGE_PROXIMITY) * closeness);
+    }
+
+    /**
+     * Gets the normalized color the color sensor would report
+     *
+     * @return red, green and blue, adding up to 1
+     */
+    double[] getColor() {
+        Ball ball = getSeenBall();
+        if (ball == null) {
+            return EMPTY;
+        }
+        return ball.red ? RED : BLUE;
+    }
+
+    private Ball getSeenBall() {
+        Ball closest = null;
+        for (Ball ball : balls) {
+            double distance = Math.abs(ball.position - SENSOR_POSITION);
+            if (distance <= SENSOR_RANGE && (closest == null || distance < Math.abs(closest.position - SENSOR_POSITION))) {
+                closest = ball;
+            }
+        }
+        return closest;
+    }
+
+    private static class Ball {
+        private double position;
+        private final boolean red;
+
+        private Ball(double position, boolean red) {
+            this.position = position;
+            this.red = red;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.subsystems.inputs.DriveTrainInputs;
+import bhs.devilbotz.utils.DriveProfile;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+import edu.wpi.first.wpilibj.smartdashboard.Field2d;
+
+/**
+ * Hardware interface for the {@link bhs.devilbotz.subsystems.DriveTrain}.
+ * <p>
+ * Every method defaults to doing nothing, so an empty implementation can stand in for the hardware
+ * when the inputs come from somewhere else, such as a replayed log.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public interface DriveTrainIO {
+    /**
+     * Reads every sensor into the inputs
+     *
+     * @param inputs the inputs to fill
+     */
+    default void updateInputs(DriveTrainInputs inputs) {
+    }
+
+    /**
+     * Sets the percent output of both sides
+     *
+     * @param leftOutput left side output, from -1 to 1
+     * @param rightOutput right side output, from -1 to 1
+     */
+    default void setOutput(double leftOutput, double rightOutput) {
+    }
+
+    /**
+     * Runs both sides closed loop on the motor controllers
+     *
+     * @param leftVelocity left side velocity in encoder ticks per 100 ms
+     * @param rightVelocity right side velocity in encoder ticks per 100 ms
+     * @param leftFeedforwardVolts left side feedforward added to the velocity loop
+     * @param rightFeedforwardVolts right side feedforward added to the velocity loop
+     */
+    default void setVelocity(double leftVelocity, double rightVelocity,
+                             double leftFeedforwardVolts, double rightFeedforwardVolts) {
+    }
+
+    /**
+     * Sets the Motion Magic cruise velocity and acceleration of each side
+     *
+     * @param leftCruiseVelocity left side cruise velocity in encoder ticks per 100 ms
+     * @param leftAcceleration left side acceleration in encoder ticks per 100 ms per second
+     * @param rightCruiseVelocity right side cruise velocity in encoder ticks per 100 ms
+     * @param rightAcceleration right side acceleration in encoder ticks per 100 ms per second
+     */
+    default void configureMotionMagic(double leftCruiseVelocity, double leftAcceleration,
+                                      double rightCruiseVelocity, double rightAcceleration) {
+    }
+
+    /**
+     * Drives both sides to a position with Motion Magic on the motor controllers
+     *
+     * @param leftPosition left side target in encoder ticks
+     * @param rightPosition right side target in encoder ticks
+     * @param leftFeedforward left side output added to the position loop, from -1 to 1
+     * @param rightFeedforward right side output added to the position loop, from -1 to 1
+     */
+    default void setMotionMagic(double leftPosition, double rightPosition,
+                                double leftFeedforward, double rightFeedforward) {
+    }
+
+    /**
+     * Streams a profile to the motor controllers and starts following it
+     *
+     * @param profile the profile, with positions relative to the start
+     * @param leftStartTicks left encoder position the profile starts from
+     * @param rightStartTicks right encoder position the profile starts from
+     */
+    default void startMotionProfile(DriveProfile profile, double leftStartTicks, double rightStartTicks) {
+    }
+
+    /**
+     * Stops following the current profile and clears any points not yet run
+     */
+    default void stopMotionProfile() {
+    }
+
+    default void resetEncoders() {
+    }
+
+    default void resetGyro() {
+    }
+
+    default void calibrateGyro() {
+    }
+
+    default void setNeutralMode(NeutralMode mode) {
+    }
+
+    /**
+     * Draws what the simulation knows about the robot, such as its true pose, onto the field.
+     * Only called in simulation.
+     *
+     * @param field the field shown on the dashboard
+     */
+    default void updateField(Field2d field) {
+    }
+
+    /**
+     * Advances the simulation by one loop. Only called in simulation.
+     */
+    default void simulationPeriodic() {
+    }
+}
@@ -0,0 +1,297 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.Constants;
+import bhs.devilbotz.subsystems.inputs.DriveTrainInputs;
+import bhs.devilbotz.utils.DriveProfile;
+import bhs.devilbotz.utils.SimParameters;
+import com.ctre.phoenix.motion.BufferedTrajectoryPointStream;
+import com.ctre.phoenix.motion.MotionProfileStatus;
+import com.ctre.phoenix.motion.TrajectoryPoint;
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
+import com.ctre.phoenix.motorcontrol.FeedbackDevice;
+import com.ctre.phoenix.motorcontrol.InvertType;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
+import com.ctre.phoenix.motorcontrol.can.TalonSRXConfiguration;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import com.ctre.phoenix.sensors.SensorVelocityMeasPeriod;
+import com.kauailabs.navx.frc.AHRS;
+import edu.wpi.first.wpilibj.SPI;
+
+/**
+ * {@link DriveTrainIO} for the robot: four Talon SRXs and the NAVX on the MXP port
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class DriveTrainIOReal implements DriveTrainIO {
+    // Define talons
+    protected final WPI_TalonSRX leftMaster = new WPI_TalonSRX(1);
+    protected final WPI_TalonSRX rightMaster = new WPI_TalonSRX(3);
+    protected final WPI_TalonSRX leftFollower = new WPI_TalonSRX(2);
+    protected final WPI_TalonSRX rightFollower = new WPI_TalonSRX(4);
+
+    // Define NAVX, updating as fast as it can so the pose estimator always sees a fresh heading
+    protected final AHRS navx = new AHRS(SPI.Port.kMXP, (byte) 200);
+
+    // Motion profile streaming, reused between profiles
+    private final BufferedTrajectoryPointStream leftStream = new BufferedTrajectoryPointStream();
+    private final BufferedTrajectoryPointStream rightStream = new BufferedTrajectoryPointStream();
+    private final TrajectoryPoint point = new TrajectoryPoint();
+    private final MotionProfileStatus profileStatus = new MotionProfileStatus();
+    private boolean profileRunning = false;
+    private int profileUnderruns = 0;
+
+    // Gain slot the masters are using for Velocity and Motion Magic
+    private int selectedSlot = 0;
+    private boolean voltageCompensation = false;
+
+    /**
+     * DriveTrainIOReal constructor
+     *
+     * @since 1.0.6
+     */
+    public DriveTrainIOReal() {
+        setupTalons();
+    }
+
+    /**
+     * Sets up the talons
+     *
+     * @since 1.0.0
+     */
+    private void setupTalons() {
+        // Apply the configuration first, it resets everything it does not set
+        configureTalons();
+
+        rightMaster.setInverted(true);
+        leftMaster.setInverted(false);
+        // Set the talons to follow each other
+        rightFollower.follow(rightMaster);
+        leftFollower.follow(leftMaster);
+
+        // Set the follower talons to invert to match the master talons
+        rightFollower.setInverted(InvertType.FollowMaster);
+        leftFollower.setInverted(InvertType.FollowMaster);
+
+        // Set the sensor phase of the master talons
+        rightMaster.setSensorPhase(true);
+        leftMaster.setSensorPhase(true);
+
+        // Send the encoder readings every 10 ms instead of 20 ms, so they are never more than half a loop old
+        rightMaster.setStatusFramePeriod(StatusFrameEnhanced.Status_2_Feedback0, 10);
+        leftMaster.setStatusFramePeriod(StatusFrameEnhanced.Status_2_Feedback0, 10);
+    }
+
+    /**
+     * Applies the closed loop configuration to the master talons
+     *
+     * @since 1.0.6
+     */
+    private void configureTalons() {
+        TalonSRXConfiguration config = new TalonSRXConfiguration();
+        config.primaryPID.selectedFeedbackSensor = FeedbackDevice.CTRE_MagEncoder_Relative;
+        // Velocity loop for teleop and path following, the feedforward is added on top as an arbitrary feedforward
+        config.slot0.kP = SimParameters.get("DriveTrain/Velocity kP", Constants.AutoConstants.VELOCITY_KP);
+        // Position loop for the motion profile executor, the profile velocity and feedforward are added on top
+        config.slot1.kP = Constants.AutoConstants.PROFILE_KP;
+        // Motion Magic position loop, kF turns the profile velocity into an output
+        config.slot2.kP = Constants.AutoConstants.MOTION_MAGIC_KP;
+        config.slot2.kF = Constants.AutoConstants.MOTION_MAGIC_KF;
+        // Average the velocity over a shorter window, the default adds noticeable lag to the velocity loop
+        config.velocityMeasurementPeriod = SensorVelocityMeasPeriod.Period_10Ms;
+        config.velocityMeasurementWindow = 16;
+        config.voltageCompSaturation = Constants.DriveConstants.VOLTAGE_COMPENSATION_VOLTS;
+
+        // configAllSettings also restores anything not set above to the factory default
+        rightMaster.configAllSettings(config);
+        leftMaster.configAllSettings(config);
+        // Off until a closed loop mode starts, see setVoltageCompensation
+        rightMaster.enableVoltageCompensation(false);
+        leftMaster.enableVoltageCompensation(false);
+    }
+
+    @Override
+    public void updateInputs(DriveTrainInputs inputs) {
+        inputs.leftPositionTicks = leftMaster.getSelectedSensorPosition();
+        inputs.rightPositionTicks = rightMaster.getSelectedSensorPosition();
+        inputs.leftVelocityTicks = leftMaster.getSelectedSensorVelocity();
+        inputs.rightVelocityTicks = rightMaster.getSelectedSensorVelocity();
+        inputs.leftAppliedVolts = leftMaster.getMotorOutputVoltage();
+        inputs.rightAppliedVolts = rightMaster.getMotorOutputVoltage();
+        inputs.leftFollowerAppliedVolts = leftFollower.getMotorOutputVoltage();
+        inputs.rightFollowerAppliedVolts = rightFollower.getMotorOutputVoltage();
+        updateProfileInputs(inputs);
+        inputs.yawDegrees = navx.getAngle();
+        inputs.yawRateDegreesPerSecond = navx.getRate();
+    }
+
+    @Override
+    public void setOutput(double leftOutput, double rightOutput) {
+        // Leaving motion profile mode drops the profile on the Talons
+        profileRunning = false;
+        setVoltageCompensation(false);
+        leftMaster.set(leftOutput);
+        rightMaster.set(rightOutput);
+    }
+
+    @Override
+    public void setVelocity(double leftVelocity, double rightVelocity,
+                            double leftFeedforwardVolts, double rightFeedforwardVolts) {
+        profileRunning = false;
+        setVoltageCompensation(true);
+        selectSlot(0);
+        leftMaster.set(ControlMode.Velocity, leftVelocity, DemandType.ArbitraryFeedForward, leftFeedforwardVolts / 12.0);
+        rightMaster.set(ControlMode.Velocity, rightVelocity, DemandType.ArbitraryFeedForward, rightFeedforwardVolts / 12.0);
+    }
+
+    @Override
+    public void configureMotionMagic(double leftCruiseVelocity, double leftAcceleration,
+                                     double rightCruiseVelocity, double rightAcceleration) {
+        leftMaster.configMotionCruiseVelocity(leftCruiseVelocity);
+        leftMaster.configMotionAcceleration(leftAcceleration);
+        rightMaster.configMotionCruiseVelocity(rightCruiseVelocity);
+        rightMaster.configMotionAcceleration(rightAcceleration);
+    }
+
+    @Override
+    public void setMotionMagic(double leftPosition, double rightPosition,
+                               double leftFeedforward, double rightFeedforward) {
+        profileRunning = false;
+        setVoltageCompensation(true);
+        selectSlot(Constants.AutoConstants.MOTION_MAGIC_SLOT);
+        leftMaster.set(ControlMode.MotionMagic, leftPosition, DemandType.ArbitraryFeedForward, leftFeedforward);
+        rightMaster.set(ControlMode.MotionMagic, rightPosition, DemandType.ArbitraryFeedForward, rightFeedforward);
+    }
+
+    private void selectSlot(int slot) {
+        // Only send the change, these are called every loop
+        if (slot != selectedSlot) {
+            leftMaster.selectProfileSlot(slot, 0);
+            rightMaster.selectProfileSlot(slot, 0);
+            selectedSlot = slot;
+        }
+    }
+
+    /**
+     * Turns voltage compensation on for the closed loop modes, whose feedforwards are in volts, and off for
+     * percent output, so the driver and the timed autos keep the uncompensated output they were tuned with
+     *
+     * @param enabled true for the closed loop modes
+     */
+    private void setVoltageCompensation(boolean enabled) {
+        // Only send the change, these are called every loop
+        if (enabled != voltageCompensation) {
+            leftMaster.enableVoltageCompensation(enabled);
+            rightMaster.enableVoltageCompensation(enabled);
+            voltageCompensation = enabled;
+        }
+    }
+
+    private void updateProfileInputs(DriveTrainInputs inputs) {
+        if (!profileRunning) {
+            inputs.leftProfileBufferedPoints = 0;
+            inputs.rightProfileBufferedPoints = 0;
+            inputs.profileFinished = true;
+            return;
+        }
+
+        leftMaster.getMotionProfileStatus(profileStatus);
+        inputs.leftProfileBufferedPoints = profileStatus.topBufferCnt + profileStatus.btmBufferCnt;
+        if (profileStatus.hasUnderrun) {
+            profileUnderruns++;
+            leftMaster.clearMotionProfileHasUnderrun(0);
+        }
+        rightMaster.getMotionProfileStatus(profileStatus);
+        inputs.rightProfileBufferedPoints = profileStatus.topBufferCnt + profileStatus.btmBufferCnt;
+        if (profileStatus.hasUnderrun) {
+            profileUnderruns++;
+            rightMaster.clearMotionProfileHasUnderrun(0);
+        }
+
+        inputs.leftProfilePosition = leftMaster.getActiveTrajectoryPosition();
+        inputs.rightProfilePosition = rightMaster.getActiveTrajectoryPosition();
+        inputs.profileUnderruns = profileUnderruns;
+        inputs.profileFinished = leftMaster.isMotionProfileFinished() && rightMaster.isMotionProfileFinished();
+    }
+
+    @Override
+    public void startMotionProfile(DriveProfile profile, double leftStartTicks, double rightStartTicks) {
+        stopMotionProfile();
+        fillStream(leftStream, profile.leftPosition, profile.leftVelocity, profile.leftFeedforward,
+                leftStartTicks, profile.pointPeriodMs);
+        fillStream(rightStream, profile.rightPosition, profile.rightVelocity, profile.rightFeedforward,
+                rightStartTicks, profile.pointPeriodMs);
+
+        profileUnderruns = 0;
+        profileRunning = true;
+        setVoltageCompensation(true);
+        leftMaster.startMotionProfile(leftStream, Constants.AutoConstants.PROFILE_MIN_BUFFERED_POINTS, ControlMode.MotionProfile);
+        rightMaster.startMotionProfile(rightStream, Constants.AutoConstants.PROFILE_MIN_BUFFERED_POINTS, ControlMode.MotionProfile);
+    }
+
+    private void fillStream(BufferedTrajectoryPointStream stream, double[] position, double[] velocity,
+                            double[] feedforward, double startTicks, int pointPeriodMs) {
+        stream.Clear();
+        point.profileSlotSelect0 = Constants.AutoConstants.PROFILE_SLOT;
+        point.profileSlotSelect1 = 0;
+        point.timeDur = pointPeriodMs;
+        point.zeroPos = false;
+        point.useAuxPID = false;
+        for (int i = 0; i < position.length; i++) {
+            point.position = startTicks + position[i];
+            point.velocity = velocity[i];
+            point.arbFeedFwd = feedforward[i];
+            point.isLastPoint = i == position.length - 1;
+            stream.Write(point);
+        }
+    }
+
+    @Override
+    public void stopMotionProfile() {
+        if (profileRunning) {
+            profileRunning = false;
+            leftMaster.set(ControlMode.PercentOutput, 0);
+            rightMaster.set(ControlMode.PercentOutput, 0);
+            leftMaster.clearMotionProfileTrajectories();
+            rightMaster.clearMotionProfileTrajectories();
+        }
+    }
+
+    @Override
+    public void resetEncoders() {
+        leftMaster.setSelectedSensorPosition(0, 0, 0);
+        rightMaster.setSelectedSensorPosition(0, 0, 0);
+    }
+
+    @Override
+    public void resetGyro() {
+        navx.reset();
+    }
+
+    @Override
+    public void calibrateGyro() {
+        navx.calibrate();
+    }
+
+    @Override
+    public void setNeutralMode(NeutralMode mode) {
+        leftMaster.setNeutralMode(mode);
+        rightMaster.setNeutralMode(mode);
+        leftFollower.setNeutralMode(mode);
+        rightFollower.setNeutralMode(mode);
+    }
+}
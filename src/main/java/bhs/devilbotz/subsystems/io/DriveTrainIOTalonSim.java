@@ -0,0 +1,145 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.Constants;
+import com.ctre.phoenix.motorcontrol.TalonSRXSimCollection;
+import edu.wpi.first.hal.SimDouble;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.simulation.DifferentialDrivetrainSim;
+import edu.wpi.first.wpilibj.simulation.SimDeviceSim;
+import edu.wpi.first.wpilibj.smartdashboard.Field2d;
+
+/**
+ * Simulated {@link DriveTrainIO} that runs the real Talon SRX and NAVX code against a
+ * {@link DifferentialDrivetrainSim}.
+ * <p>
+ * The Talons run in the Phoenix simulator, so percent output, Velocity, Motion Magic and motion
+ * profiles all go through the same firmware closed loops as on the robot. Every loop the motor
+ * voltages drive the physics model, and the wheel positions, velocities and heading from the model
+ * are written back into the Talon sensors and the NAVX. The range sensors on the front of the robot
+ * read the distance to the field perimeter from the simulated pose.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class DriveTrainIOTalonSim extends DriveTrainIOReal {
+    private static final double LOOP_PERIOD = 0.02;
+
+    private final TalonSRXSimCollection leftSim = leftMaster.getSimCollection();
+    private final TalonSRXSimCollection rightSim = rightMaster.getSimCollection();
+
+    private final DifferentialDrivetrainSim driveSim = new DifferentialDrivetrainSim(
+            DCMotor.getCIM(2),
+            Constants.DriveConstants.GEARING,
+            Constants.DriveConstants.MOMENT_OF_INERTIA_KG_METERS_SQUARED,
+            Constants.DriveConstants.MASS_KG,
+            Units.inchesToMeters(Constants.AutoConstants.WHEEL_DIAMETER_INCHES / 2),
+            Constants.AutoConstants.TRACK_WIDTH_METERS,
+            null);
+
+    // The NAVX publishes a SimDevice in simulation, its angle and rate come from these values
+    private final SimDouble yawSim;
+    private final SimDouble rateSim;
+
+    private int lastLeftTicks;
+    private int lastRightTicks;
+    // The NAVX is not reset in simulation, so the reset is tracked here
+    private double yawOffset;
+
+    // Range sensors on the front of the robot, they depend on where the robot is
+    private final RangeSensorSim rangeSensorSim = new RangeSensorSim();
+
+    /**
+     * DriveTrainIOTalonSim constructor
+     *
+     * @since 1.0.6
+     */
+    public DriveTrainIOTalonSim() {
+        SimDeviceSim navxSim = new SimDeviceSim("navX-Sensor[0]");
+        yawSim = navxSim.getDouble("Yaw");
+        rateSim = navxSim.getDouble("Rate");
+    }
+
+    @Override
+    public void resetGyro() {
+        super.resetGyro();
+        yawOffset = getRawYaw();
+        updateNavx();
+    }
+
+    @Override
+    public void simulationPeriodic() {
+        double batteryVoltage = RobotController.getBatteryVoltage();
+        leftSim.setBusVoltage(batteryVoltage);
+        rightSim.setBusVoltage(batteryVoltage);
+
+        // The simulated outputs ignore inversion, and the right side is inverted
+        driveSim.setInputs(leftSim.getMotorOutputLeadVoltage(), -rightSim.getMotorOutputLeadVoltage());
+        driveSim.update(LOOP_PERIOD);
+
+        // Add the change in distance so encoder resets on the Talons keep working
+        int leftTicks = toTicks(driveSim.getLeftPositionMeters());
+        int rightTicks = toTicks(-driveSim.getRightPositionMeters());
+        leftSim.addQuadraturePosition(leftTicks - lastLeftTicks);
+        rightSim.addQuadraturePosition(rightTicks - lastRightTicks);
+        lastLeftTicks = leftTicks;
+        lastRightTicks = rightTicks;
+
+        // Talon velocities are per 100 ms
+        leftSim.setQuadratureVelocity(toTicks(driveSim.getLeftVelocityMetersPerSecond() / 10));
+        rightSim.setQuadratureVelocity(toTicks(-driveSim.getRightVelocityMetersPerSecond() / 10));
+
+        updateNavx();
+        rangeSensorSim.update(driveSim.getPose());
+    }
+
+    @Override
+    public void updateField(Field2d field) {
+        field.getObject("Simulated").setPose(driveSim.getPose());
+    }
+
+    /**
+     * Gets the true pose of the simulated robot, for simulating sensors that depend on it
+     *
+     * @return the pose in meters
+     *
+     * @since 1.0.6
+     */
+    public Pose2d getPose() {
+        return driveSim.getPose();
+    }
+
+    private void updateNavx() {
+        if (yawSim != null) {
+            yawSim.set(getRawYaw() - yawOffset);
+        }
+        if (rateSim != null) {
+            // The heading is counterclockwise positive, the NAVX is clockwise positive
+            double angularVelocity = (driveSim.getRightVelocityMetersPerSecond() - driveSim.getLeftVelocityMetersPerSecond())
+                    / Constants.AutoConstants.TRACK_WIDTH_METERS;
+            rateSim.set(-Math.toDegrees(angularVelocity));
+        }
+    }
+
+    private double getRawYaw() {
+        return -driveSim.getHeading().getDegrees();
+    }
+
+    private static int toTicks(double meters) {
+        return (int) Math.round(meters / Constants.AutoConstants.METERS_PER_TICK);
+    }
+}
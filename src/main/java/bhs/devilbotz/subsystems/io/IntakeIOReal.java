@@ -0,0 +1,52 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.subsystems.inputs.IntakeInputs;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import edu.wpi.first.util.sendable.SendableRegistry;
+
+/**
+ * {@link IntakeIO} for the robot: a single Talon SRX
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class IntakeIOReal implements IntakeIO {
+    protected final WPI_TalonSRX intakeMotor = new WPI_TalonSRX(7);
+
+    /**
+     * IntakeIOReal constructor
+     *
+     * @since 1.0.6
+     */
+    public IntakeIOReal() {
+        SendableRegistry.addLW(intakeMotor, "Intake", "IntakeMotor");
+    }
+
+    @Override
+    public void updateInputs(IntakeInputs inputs) {
+        inputs.statorCurrent = intakeMotor.getStatorCurrent();
+    }
+
+    @Override
+    public void setOutput(double output) {
+        intakeMotor.set(output);
+    }
+
+    @Override
+    public void stop() {
+        intakeMotor.set(0);
+        intakeMotor.stopMotor();
+    }
+}
@@ -0,0 +1,44 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.subsystems.inputs.IntakeInputs;
+
+/**
+ * Simple simulated {@link IntakeIO} that needs no HAL devices.
+ * The stator current is proportional to the output, which keeps it under the stall limit.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class IntakeIOSim implements IntakeIO {
+    // Free running current at full output
+    private static final double FREE_CURRENT = 8;
+
+    private double output;
+
+    @Override
+    public void updateInputs(IntakeInputs inputs) {
+        inputs.statorCurrent = Math.abs(output) * FREE_CURRENT;
+    }
+
+    @Override
+    public void setOutput(double output) {
+        this.output = output;
+    }
+
+    @Override
+    public void stop() {
+        output = 0;
+    }
+}
@@ -0,0 +1,130 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import edu.wpi.first.hal.SimBoolean;
+import edu.wpi.first.hal.SimDouble;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.simulation.AnalogInputSim;
+import edu.wpi.first.wpilibj.simulation.CallbackStore;
+import edu.wpi.first.wpilibj.simulation.SimDeviceSim;
+
+/**
+ * Simulates the forward facing range sensors used by the Approach command: the two ultrasonics on the
+ * front corners and the analog ultrasonic in the middle. Each one reads the distance to the field
+ * perimeter straight ahead of it, from the simulated robot pose.
+ * <p>
+ * The ultrasonic SimDevices only exist once Approach has created its sensors, so they are attached
+ * when the HAL creates them. Until then only the analog ultrasonic is updated.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+class RangeSensorSim {
+    // 2022 field perimeter
+    private static final double FIELD_LENGTH_METERS = 16.46;
+    private static final double FIELD_WIDTH_METERS = 8.23;
+    private static final double MAX_RANGE_METERS = 5.0;
+
+    // Sensor positions from the robot center, the first ultrasonic is on the right
+    private static final Transform2d RIGHT_SENSOR = new Transform2d(new Translation2d(0.4, -0.25), new Rotation2d());
+    private static final Transform2d LEFT_SENSOR = new Transform2d(new Translation2d(0.4, 0.25), new Rotation2d());
+    private static final Transform2d CENTER_SENSOR = new Transform2d(new Translation2d(0.4, 0), new Rotation2d());
+
+    // Echo channels of the two ultrasonics
+    private static final int RIGHT_ECHO_CHANNEL = 10;
+    private static final int LEFT_ECHO_CHANNEL = 6;
+    // The analog ultrasonic reads 5 volts at 5120 mm
+    private static final double VOLTS_PER_METER = 5.0 / 5.12;
+
+    private final AnalogInputSim analogSim = new AnalogInputSim(0);
+    private SimDouble rightRangeSim;
+    private SimBoolean rightValidSim;
+    private SimDouble leftRangeSim;
+    private SimBoolean leftValidSim;
+
+    // Kept so the callbacks stay registered
+    private final CallbackStore rightCallback;
+    private final CallbackStore leftCallback;
+
+    /**
+     * RangeSensorSim constructor
+     */
+    RangeSensorSim() {
+        rightCallback = SimDeviceSim.registerDeviceCreatedCallback(getDeviceName(RIGHT_ECHO_CHANNEL), (name, handle) -> {
+            SimDeviceSim device = new SimDeviceSim(handle);
+            rightRangeSim = device.getDouble("Range (in)");
+            rightValidSim = device.getBoolean("Range Valid");
+        }, true);
+        leftCallback = SimDeviceSim.registerDeviceCreatedCallback(getDeviceName(LEFT_ECHO_CHANNEL), (name, handle) -> {
+            SimDeviceSim device = new SimDeviceSim(handle);
+            leftRangeSim = device.getDouble("Range (in)");
+            leftValidSim = device.getBoolean("Range Valid");
+        }, true);
+    }
+
+    /**
+     * Updates every sensor from the robot pose
+     *
+     * @param pose the true pose of the simulated robot
+     */
+    void update(Pose2d pose) {
+        setUltrasonic(rightRangeSim, rightValidSim, getRange(pose.transformBy(RIGHT_SENSOR)));
+        setUltrasonic(leftRangeSim, leftValidSim, getRange(pose.transformBy(LEFT_SENSOR)));
+        analogSim.setVoltage(getRange(pose.transformBy(CENTER_SENSOR)) * VOLTS_PER_METER);
+    }
+
+    private static String getDeviceName(int echoChannel) {
+        return "Ultrasonic[" + echoChannel + "]";
+    }
+
+    private static void setUltrasonic(SimDouble range, SimBoolean valid, double meters) {
+        if (range != null) {
+            range.set(Units.metersToInches(meters));
+        }
+        if (valid != null) {
+            valid.set(true);
+        }
+    }
+
+    /**
+     * Gets the distance from a sensor to the field perimeter in the direction it faces
+     *
+     * @param sensor the sensor pose on the field
+     *
+     * @return the distance in meters, capped at the sensor range
+     */
+    private static double getRange(Pose2d sensor) {
+        double x = sensor.getX();
+        double y = sensor.getY();
+        double dx = sensor.getRotation().getCos();
+        double dy = sensor.getRotation().getSin();
+
+        double range = MAX_RANGE_METERS;
+        if (dx > 1e-9) {
+            range = Math.min(range, (FIELD_LENGTH_METERS - x) / dx);
+        } else if (dx < -1e-9) {
+            range = Math.min(range, -x / dx);
+        }
+        if (dy > 1e-9) {
+            range = Math.min(range, (FIELD_WIDTH_METERS - y) / dy);
+        } else if (dy < -1e-9) {
+            range = Math.min(range, -y / dy);
+        }
+        return Math.max(0, range);
+    }
+}
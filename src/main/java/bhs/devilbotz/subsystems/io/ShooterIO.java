@@ -0,0 +1,82 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.subsystems.inputs.ShooterInputs;
+
+/**
+ * Hardware interface for the {@link bhs.devilbotz.subsystems.Shooter}.
+ * <p>
+ * Every method defaults to doing nothing, so an empty implementation can stand in for the hardware
+ * when the inputs come from somewhere else, such as a replayed log.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public interface ShooterIO {
+    /**
+     * Reads every sensor into the inputs
+     *
+     * @param inputs the inputs to fill
+     */
+    default void updateInputs(ShooterInputs inputs) {
+    }
+
+    /**
+     * Runs the flywheel open loop
+     *
+     * @param output percent output, from -1 to 1
+     */
+    default void setOutput(double output) {
+    }
+
+    /**
+     * Runs the flywheel at a fixed voltage
+     *
+     * @param volts the motor voltage
+     */
+    default void setVoltage(double volts) {
+    }
+
+    /**
+     * Runs the flywheel closed loop on the motor controller
+     *
+     * @param rpm the target velocity in RPM
+     */
+    default void setVelocity(double rpm) {
+    }
+
+    /**
+     * Configures the closed loop velocity gains
+     */
+    default void setPID(double p, double i, double d, double iZone, double ff) {
+    }
+
+    /**
+     * Limits the closed loop output
+     *
+     * @param min the minimum output
+     * @param max the maximum output
+     */
+    default void setOutputRange(double min, double max) {
+    }
+
+    default void stop() {
+    }
+
+    /**
+     * Advances the simulation by one loop. Only called in simulation.
+     */
+    default void simulationPeriodic() {
+    }
+}
@@ -0,0 +1,88 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.subsystems.inputs.ShooterInputs;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkMaxPIDController;
+
+/**
+ * {@link ShooterIO} for the robot: a NEO on a SPARK MAX using its built in velocity PID
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class ShooterIOReal implements ShooterIO {
+    protected final CANSparkMax shooterMotor = new CANSparkMax(8, CANSparkMax.MotorType.kBrushless);
+    protected final SparkMaxPIDController pidController;
+    protected final RelativeEncoder encoder;
+
+    /**
+     * ShooterIOReal constructor
+     *
+     * @since 1.0.6
+     */
+    public ShooterIOReal() {
+        shooterMotor.setInverted(true);
+
+        pidController = shooterMotor.getPIDController();
+
+        encoder = shooterMotor.getEncoder();
+
+        // Send the velocity every 5 ms so the shooter control loop sees a new reading each iteration
+        shooterMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 5);
+    }
+
+    @Override
+    public void updateInputs(ShooterInputs inputs) {
+        inputs.velocity = encoder.getVelocity();
+        inputs.appliedOutput = shooterMotor.getAppliedOutput();
+    }
+
+    @Override
+    public void setOutput(double output) {
+        shooterMotor.set(output);
+    }
+
+    @Override
+    public void setVoltage(double volts) {
+        shooterMotor.setVoltage(volts);
+    }
+
+    @Override
+    public void setVelocity(double rpm) {
+        pidController.setReference(rpm, CANSparkMax.ControlType.kVelocity);
+    }
+
+    @Override
+    public void setPID(double p, double i, double d, double iZone, double ff) {
+        pidController.setP(p);
+        pidController.setI(i);
+        pidController.setD(d);
+        pidController.setIZone(iZone);
+        pidController.setFF(ff);
+    }
+
+    @Override
+    public void setOutputRange(double min, double max) {
+        pidController.setOutputRange(min, max);
+    }
+
+    @Override
+    public void stop() {
+        shooterMotor.set(0);
+        shooterMotor.stopMotor();
+    }
+}
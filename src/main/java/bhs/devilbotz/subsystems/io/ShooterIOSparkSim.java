@@ -0,0 +1,152 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.Constants;
+import bhs.devilbotz.subsystems.inputs.ShooterInputs;
+import edu.wpi.first.hal.SimDouble;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.simulation.FlywheelSim;
+import edu.wpi.first.wpilibj.simulation.SimDeviceSim;
+
+/**
+ * Simulated {@link ShooterIO} that runs the real SPARK MAX code against a {@link FlywheelSim}.
+ * <p>
+ * Every loop the SPARK MAX applied output drives the flywheel model, and the model velocity is written
+ * back into the SPARK MAX encoder through its SimDevice. The SPARK MAX simulation does not run the
+ * onboard velocity PID, so closed loop velocity mode is run here with the same gains and written to the
+ * motor as a percent output. {@link #shootBall()} takes a ball's worth of speed out of the flywheel.
+ * <p>
+ * The shooter control loop calls in from its own thread, so every method is synchronized.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class ShooterIOSparkSim extends ShooterIOReal {
+    private static final double LOOP_PERIOD = 0.02;
+    // Roughly the noise of the NEO hall sensor velocity, in radians per second
+    private static final double MEASUREMENT_NOISE = 0.5;
+
+    private final FlywheelSim flywheelSim = new FlywheelSim(DCMotor.getNEO(1),
+            Constants.ShooterConstants.GEARING, Constants.ShooterConstants.MOMENT_OF_INERTIA_KG_METERS_SQUARED,
+            VecBuilder.fill(MEASUREMENT_NOISE));
+
+    private final SimDouble velocitySim;
+    private final SimDouble positionSim;
+
+    private final SimVelocityPID pid = new SimVelocityPID();
+    private boolean closedLoop = false;
+    private double setPoint;
+
+    /**
+     * ShooterIOSparkSim constructor
+     *
+     * @since 1.0.6
+     */
+    public ShooterIOSparkSim() {
+        SimDeviceSim sparkSim = new SimDeviceSim("SPARK MAX [" + shooterMotor.getDeviceId() + "]");
+        velocitySim = sparkSim.getDouble("Velocity");
+        positionSim = sparkSim.getDouble("Position");
+    }
+
+    @Override
+    public synchronized void updateInputs(ShooterInputs inputs) {
+        super.updateInputs(inputs);
+    }
+
+    @Override
+    public synchronized void setOutput(double output) {
+        closedLoop = false;
+        super.setOutput(output);
+    }
+
+    @Override
+    public synchronized void setVoltage(double volts) {
+        closedLoop = false;
+        super.setVoltage(volts);
+    }
+
+    @Override
+    public synchronized void setVelocity(double rpm) {
+        if (!closedLoop) {
+            pid.reset(rpm - flywheelSim.getAngularVelocityRPM());
+        }
+        closedLoop = true;
+        setPoint = rpm;
+    }
+
+    @Override
+    public synchronized void setPID(double p, double i, double d, double iZone, double ff) {
+        super.setPID(p, i, d, iZone, ff);
+        pid.setPID(p, i, d, iZone, ff);
+    }
+
+    @Override
+    public synchronized void setOutputRange(double min, double max) {
+        super.setOutputRange(min, max);
+        pid.setOutputRange(min, max);
+    }
+
+    @Override
+    public synchronized void stop() {
+        closedLoop = false;
+        super.stop();
+    }
+
+    @Override
+    public synchronized void simulationPeriodic() {
+        if (closedLoop) {
+            shooterMotor.set(pid.calculate(setPoint, flywheelSim.getAngularVelocityRPM()));
+        }
+
+        flywheelSim.setInputVoltage(shooterMotor.getAppliedOutput() * RobotController.getBatteryVoltage());
+        flywheelSim.update(LOOP_PERIOD);
+        if (positionSim != null) {
+            positionSim.set(positionSim.get() + flywheelSim.getAngularVelocityRPM() / 60 * LOOP_PERIOD);
+        }
+        updateEncoder();
+    }
+
+    /**
+     * Takes the energy a ball carries away out of the flywheel
+     *
+     * @since 1.0.6
+     */
+    public synchronized void shootBall() {
+        flywheelSim.setState(VecBuilder.fill(getVelocityAfterShot(flywheelSim.getAngularVelocityRadPerSec())));
+        updateEncoder();
+    }
+
+    /**
+     * Gets the flywheel speed after a ball leaves it. The ball leaves at the wheel surface speed,
+     * so angular momentum is shared between the flywheel and the ball.
+     *
+     * @param radiansPerSecond the flywheel speed before the shot
+     *
+     * @return the flywheel speed after the shot
+     */
+    static double getVelocityAfterShot(double radiansPerSecond) {
+        double flywheelInertia = Constants.ShooterConstants.MOMENT_OF_INERTIA_KG_METERS_SQUARED;
+        double radius = Constants.ShooterConstants.WHEEL_RADIUS_METERS;
+        double ballInertia = Constants.ShooterConstants.BALL_MASS_KG * radius * radius;
+        return radiansPerSecond * flywheelInertia / (flywheelInertia + ballInertia);
+    }
+
+    private void updateEncoder() {
+        if (velocitySim != null) {
+            velocitySim.set(flywheelSim.getAngularVelocityRPM());
+        }
+    }
+}
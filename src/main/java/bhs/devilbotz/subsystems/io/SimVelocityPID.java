@@ -0,0 +1,73 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+/**
+ * The SPARK MAX velocity PID, for simulations where the motor controller does not run it:
+ * P, I with I zone, D and velocity feed forward, with the output limited to the output range.
+ * It is meant to be called once per simulation step.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+class SimVelocityPID {
+    private double p, i, d, iZone, ff;
+    private double minOutput = -1;
+    private double maxOutput = 1;
+
+    private double integral;
+    private double lastError;
+
+    void setPID(double p, double i, double d, double iZone, double ff) {
+        this.p = p;
+        this.i = i;
+        this.d = d;
+        this.iZone = iZone;
+        this.ff = ff;
+    }
+
+    void setOutputRange(double min, double max) {
+        minOutput = min;
+        maxOutput = max;
+    }
+
+    /**
+     * Clears the integral and derivative history, for when closed loop control starts
+     *
+     * @param error the starting error in RPM
+     */
+    void reset(double error) {
+        integral = 0;
+        lastError = error;
+    }
+
+    /**
+     * Runs one step of the PID
+     *
+     * @param setPoint the target velocity in RPM
+     * @param velocity the measured velocity in RPM
+     *
+     * @return the output, from the min to the max output
+     */
+    double calculate(double setPoint, double velocity) {
+        double error = setPoint - velocity;
+        if (iZone == 0 || Math.abs(error) <= iZone) {
+            integral += error;
+        } else {
+            integral = 0;
+        }
+        double output = p * error + i * integral + d * (error - lastError) + ff * setPoint;
+        lastError = error;
+        return Math.max(minOutput, Math.min(maxOutput, output));
+    }
+}
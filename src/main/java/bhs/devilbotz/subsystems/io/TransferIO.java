@@ -0,0 +1,48 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.subsystems.inputs.TransferInputs;
+
+/**
+ * Hardware interface for the {@link bhs.devilbotz.subsystems.Transfer}.
+ * <p>
+ * Every method defaults to doing nothing, so an empty implementation can stand in for the hardware
+ * when the inputs come from somewhere else, such as a replayed log.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public interface TransferIO {
+    /**
+     * Reads every sensor into the inputs
+     *
+     * @param inputs the inputs to fill
+     */
+    default void updateInputs(TransferInputs inputs) {
+    }
+
+    /**
+     * Sets the transfer motor output
+     *
+     * @param output percent output, from -1 to 1
+     */
+    default void setOutput(double output) {
+    }
+
+    /**
+     * Advances the simulation by one loop. Only called in simulation.
+     */
+    default void simulationPeriodic() {
+    }
+}
@@ -0,0 +1,118 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import edu.wpi.first.hal.SimDouble;
+import edu.wpi.first.wpilibj.simulation.EncoderSim;
+import edu.wpi.first.wpilibj.simulation.SimDeviceSim;
+
+/**
+ * Simulated {@link TransferIO} that runs the real transfer code, including the color sensor poller,
+ * against simulated devices.
+ * <p>
+ * The transfer encoder moves in proportion to the motor output, and the balls move with it. The color
+ * sensor SimDevice reports the ball passing in front of it, and running the transfer forward feeds the
+ * balls into the shooter.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class TransferIODeviceSim extends TransferIOReal {
+    private static final double LOOP_PERIOD = 0.02;
+    // Encoder distance per second at full output
+    private static final double MAX_RATE = 60;
+    // Enough for ShootTwoBalls
+    private static final int BALLS_AT_START = 2;
+    // The color sensor reports raw counts, it scales them back to a normalized color
+    private static final double COLOR_SCALE = 1000;
+
+    private final BallPathSim ballPath = new BallPathSim();
+    private final EncoderSim encoderSim = new EncoderSim(encoder);
+
+    private final SimDouble proximitySim;
+    private final SimDouble redSim;
+    private final SimDouble greenSim;
+    private final SimDouble blueSim;
+
+    private double output;
+    private double distance;
+
+    /**
+     * TransferIODeviceSim constructor
+     *
+     * @since 1.0.6
+     */
+    public TransferIODeviceSim() {
+        // Named after the I2C port and address, the MXP port is 1 and the sensor is at 0x52
+        SimDeviceSim colorSim = new SimDeviceSim("REV Color Sensor V3[1,82]");
+        proximitySim = colorSim.getDouble("Proximity");
+        redSim = colorSim.getDouble("Red");
+        greenSim = colorSim.getDouble("Green");
+        blueSim = colorSim.getDouble("Blue");
+
+        ballPath.preload(BALLS_AT_START, true);
+        updateColorSensor();
+    }
+
+    @Override
+    public void setOutput(double output) {
+        this.output = output;
+        super.setOutput(output);
+    }
+
+    /**
+     * Sets what to call when a ball leaves the transfer into the shooter
+     *
+     * @param shotListener called once per ball
+     *
+     * @since 1.0.6
+     */
+    public void setShotListener(Runnable shotListener) {
+        ballPath.setShotListener(shotListener);
+    }
+
+    /**
+     * Adds a ball at the start of the transfer, as if the intake had just handed it over
+     *
+     * @param red true for a red ball, false for a blue ball
+     *
+     * @since 1.0.6
+     */
+    public void loadBall(boolean red) {
+        ballPath.loadBall(red);
+    }
+
+    @Override
+    public void simulationPeriodic() {
+        double travel = output * MAX_RATE * LOOP_PERIOD;
+        distance += travel;
+        ballPath.move(travel);
+
+        encoderSim.setDistance(distance);
+        encoderSim.setRate(output * MAX_RATE);
+        updateColorSensor();
+    }
+
+    private void updateColorSensor() {
+        // The poller thread reads these, each value is written atomically
+        if (proximitySim != null) {
+            proximitySim.set(ballPath.getProximity());
+        }
+        double[] color = ballPath.getColor();
+        if (redSim != null && greenSim != null && blueSim != null) {
+            redSim.set(color[0] * COLOR_SCALE);
+            greenSim.set(color[1] * COLOR_SCALE);
+            blueSim.set(color[2] * COLOR_SCALE);
+        }
+    }
+}
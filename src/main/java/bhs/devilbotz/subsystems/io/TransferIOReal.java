@@ -0,0 +1,79 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.subsystems.io;
+
+import bhs.devilbotz.subsystems.inputs.TransferInputs;
+import bhs.devilbotz.utils.ColorSensorPoller;
+import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
+import com.revrobotics.ColorSensorV3;
+import edu.wpi.first.util.sendable.SendableRegistry;
+import edu.wpi.first.wpilibj.Encoder;
+import edu.wpi.first.wpilibj.I2C;
+
+/**
+ * {@link TransferIO} for the robot: the transfer Talon SRX, its encoder and the color sensor
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class TransferIOReal implements TransferIO {
+    protected final WPI_TalonSRX transferMotor = new WPI_TalonSRX(6);
+    protected final Encoder encoder = new Encoder(9, 8);
+
+    // Color sensor setup
+    protected final ColorSensorV3 colorSensor = new ColorSensorV3(I2C.Port.kMXP);
+    private final ColorSensorPoller colorSensorPoller = new ColorSensorPoller(colorSensor, 0.025);
+
+    /**
+     * TransferIOReal constructor
+     *
+     * @since 1.0.6
+     */
+    public TransferIOReal() {
+        SendableRegistry.addLW(transferMotor, "Transfer", "TransferMotor");
+
+        encoder.setDistancePerPulse(0.1428571428571429);
+
+        setupColorSensor();
+    }
+
+    private void setupColorSensor() {
+        // Measure at 25 ms so the poller sees a fresh value on every read
+        colorSensor.configureColorSensor(ColorSensorV3.ColorSensorResolution.kColorSensorRes16bit,
+                ColorSensorV3.ColorSensorMeasurementRate.kColorRate25ms, ColorSensorV3.GainFactor.kGain3x);
+        colorSensor.configureProximitySensor(ColorSensorV3.ProximitySensorResolution.kProxRes11bit,
+                ColorSensorV3.ProximitySensorMeasurementRate.kProxRate25ms);
+
+        colorSensorPoller.start();
+    }
+
+    @Override
+    public void updateInputs(TransferInputs inputs) {
+        // The color sensor is read on the poller thread, this never touches the I2C bus
+        ColorSensorPoller.Sample sample = colorSensorPoller.getLatest();
+        inputs.colorTimestamp = sample.timestamp;
+        inputs.red = sample.red;
+        inputs.green = sample.green;
+        inputs.blue = sample.blue;
+        inputs.proximity = sample.proximity;
+        inputs.colorReadDuration = sample.readDuration;
+
+        inputs.encoderDistance = encoder.getDistance();
+        inputs.encoderRate = encoder.getRate();
+    }
+
+    @Override
+    public void setOutput(double output) {
+        transferMotor.set(output);
+    }
+}
@@ -0,0 +1,126 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+import com.revrobotics.ColorSensorV3;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.util.Color;
+
+/**
+ * Polls a {@link ColorSensorV3} on its own thread so the blocking I2C reads never run on the robot loop.
+ * <p>
+ * The poller thread is the only writer. Every poll publishes a new immutable {@link Sample} through a
+ * volatile field, so readers always see a complete sample without locking.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class ColorSensorPoller {
+    private final ColorSensorV3 colorSensor;
+    private final Notifier notifier;
+    private final double period;
+
+    private volatile Sample latest = new Sample(0, 0, 0, 0, 0, 0);
+    private volatile double maxReadDuration = 0;
+
+    /**
+     * ColorSensorPoller constructor
+     *
+     * @param colorSensor the color sensor to poll
+     * @param period the time between polls in seconds, this should match the sensor measurement rate
+     *
+     * @since 1.0.6
+     */
+    public ColorSensorPoller(ColorSensorV3 colorSensor, double period) {
+        this.colorSensor = colorSensor;
+        this.period = period;
+        notifier = new Notifier(this::poll);
+        notifier.setName("ColorSensorPoller");
+    }
+
+    /**
+     * Starts polling the sensor
+     *
+     * @since 1.0.6
+     */
+    public void start() {
+        notifier.startPeriodic(period);
+    }
+
+    /**
+     * Stops polling the sensor
+     *
+     * @since 1.0.6
+     */
+    public void stop() {
+        notifier.stop();
+    }
+
+    private void poll() {
+        long start = System.nanoTime();
+        Color color = colorSensor.getColor();
+        int proximity = colorSensor.getProximity();
+        double readDuration = (System.nanoTime() - start) / 1.0e6;
+
+        if (readDuration > maxReadDuration) {
+            maxReadDuration = readDuration;
+        }
+        latest = new Sample(Timer.getFPGATimestamp(), proximity, color.red, color.green, color.blue, readDuration);
+    }
+
+    /**
+     * Gets the most recent sample. This never blocks.
+     *
+     * @return the most recent sample
+     *
+     * @since 1.0.6
+     */
+    public Sample getLatest() {
+        return latest;
+    }
+
+    /**
+     * Gets the longest I2C read since the poller was created
+     *
+     * @return the longest read in milliseconds
+     *
+     * @since 1.0.6
+     */
+    public double getMaxReadDuration() {
+        return maxReadDuration;
+    }
+
+    /**
+     * A single reading of the color sensor
+     */
+    public static final class Sample {
+        // FPGA timestamp of the reading in seconds
+        public final double timestamp;
+        public final int proximity;
+        public final double red;
+        public final double green;
+        public final double blue;
+        // Time spent on the I2C reads in milliseconds
+        public final double readDuration;
+
+        private Sample(double timestamp, int proximity, double red, double green, double blue, double readDuration) {
+            this.timestamp = timestamp;
+            this.proximity = proximity;
+            this.red = red;
+            this.green = green;
+            this.blue = blue;
+            this.readDuration = readDuration;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+
+/**
+ * Records when every command started and ended, whether it was interrupted, and how much time its
+ * execute() calls took, so the dead time in a routine can be found.
+ * <p>
+ * The timeline comes from the {@link CommandScheduler} callbacks. Commands inside a
+ * {@link bhs.devilbotz.commands.CollapsingSequentialCommandGroup} or a
+ * {@link bhs.devilbotz.commands.TracedParallelCommandGroup} are reported by the group, since the
+ * scheduler never sees them. The WPILib groups do not report theirs, so routines use those two. Execute time is measured the same way as {@link LoopProfiler}: from the last
+ * button poll or command execute to this one, so it also includes the previous command's isFinished().
+ * <p>
+ * Runs are kept in a preallocated ring buffer holding the latest {@value #MAX_RECORDS} runs. Timestamps
+ * are FPGA time, so simulated runs line up with simulated time. The buffer is written as a Chrome trace
+ * JSON file, which can be opened in chrome://tracing or https://ui.perfetto.dev.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public final class CommandTracer {
+    private static final int MAX_COMMANDS = 128;
+    private static final int MAX_RECORDS = 4096;
+
+    // Commands seen so far, a command keeps its index for the life of the program
+    private static final IdentityHashMap<Command, Integer> commandLookup = new IdentityHashMap<>(MAX_COMMANDS * 2);
+    private static final String[] commandNames = new String[MAX_COMMANDS];
+    private static int commandCount = 0;
+
+    // The current run of each command, the start is -1 when it is not running
+    private static final long[] activeStart = new long[MAX_COMMANDS];
+    private static final long[] activeExecuteNanos = new long[MAX_COMMANDS];
+    private static final int[] activeExecutes = new int[MAX_COMMANDS];
+
+    // Finished runs
+    private static final int[] recordCommand = new int[MAX_RECORDS];
+    private static final long[] recordStart = new long[MAX_RECORDS];
+    private static final long[] recordEnd = new long[MAX_RECORDS];
+    private static final long[] recordExecuteNanos = new long[MAX_RECORDS];
+    private static final int[] recordExecutes = new int[MAX_RECORDS];
+    private static final boolean[] recordInterrupted = new boolean[MAX_RECORDS];
+    private static long recordCount = 0;
+
+    private static long lastMarkNanos = System.nanoTime();
+
+    private CommandTracer() {
+    }
+
+    /**
+     * Registers the tracer with the {@link CommandScheduler}.
+     * <p>
+     * This should be called once, after the button bindings and the {@link LoopProfiler} are set up, so
+     * its button poll is the last one before the commands run.
+     *
+     * @since 1.0.6
+     */
+    public static void install() {
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        scheduler.addButton(CommandTracer::markButtons);
+        scheduler.onCommandInitialize(CommandTracer::commandStarted);
+        scheduler.onCommandExecute(CommandTracer::markExecute);
+        scheduler.onCommandFinish(command -> commandEnded(command, false));
+        scheduler.onCommandInterrupt(command -> commandEnded(command, true));
+    }
+
+    /**
+     * Records the start of a command. The scheduler calls this for scheduled commands,
+     * command groups call it for the commands they run.
+     *
+     * @param command the command that was initialized
+     *
+     * @since 1.0.6
+     */
+    public static void commandStarted(Command command) {
+        int index = getIndex(command);
+        if (index < 0) {
+            return;
+        }
+        activeStart[index] = RobotController.getFPGATime();
+        activeExecuteNanos[index] = 0;
+        activeExecutes[index] = 0;
+    }
+
+    /**
+     * Records the end of a command. The scheduler calls this for scheduled commands,
+     * command groups call it for the commands they run.
+     *
+     * @param command the command that ended
+     * @param interrupted whether the command was interrupted
+     *
+     * @since 1.0.6
+     */
+    public static void commandEnded(Command command, boolean interrupted) {
+        int index = getIndex(command);
+        if (index < 0 || activeStart[index] < 0) {
+            return;
+        }
+        int record = (int) (recordCount % MAX_RECORDS);
+        recordCommand[record] = index;
+        recordStart[record] = activeStart[index];
+        recordEnd[record] = RobotController.getFPGATime();
+        recordExecuteNanos[record] = activeExecuteNanos[index];
+        recordExecutes[record] = activeExecutes[index];
+        recordInterrupted[record] = interrupted;
+        recordCount++;
+        activeStart[index] = -1;
+    }
+
+    private static void markButtons() {
+        lastMarkNanos = System.nanoTime();
+    }
+
+    private static void markExecute(Command command) {
+        long now = System.nanoTime();
+        int index = getIndex(command);
+        if (index >= 0 && activeStart[index] >= 0) {
+            activeExecuteNanos[index] += now - lastMarkNanos;
+            activeExecutes[index]++;
+        }
+        lastMarkNanos = now;
+    }
+
+    private static int getIndex(Command command) {
+        Integer index = commandLookup.get(command);
+        if (index == null) {
+            // Only allocates the first time a command is seen
+            if (commandCount >= MAX_COMMANDS) {
+                return -1;
+            }
+            index = commandCount++;
+            commandNames[index] = command.getName();
+            activeStart[index] = -1;
+            commandLookup.put(command, index);
+        }
+        return index;
+    }
+
+    /**
+     * Gets whether anything has been recorded
+     *
+     * @return true if a command has run
+     *
+     * @since 1.0.6
+     */
+    public static boolean hasRecords() {
+        return recordCount > 0;
+    }
+
+    /**
+     * Writes the recorded runs as a Chrome trace, on a background thread so the robot loop is not held up.
+     * Commands that are still running are written as ending now.
+     *
+     * @param directory the directory to write the trace file to
+     *
+     * @since 1.0.6
+     */
+    public static void writeInBackground(Path directory) {
+        String trace = buildTrace();
+        Thread writer = new Thread(() -> {
+            try {
+                writeFile(directory, trace);
+            } catch (IOException e) {
+                DriverStation.reportError("Could not write the command trace: " + e.getMessage(), false);
+            }
+        }, "CommandTraceWriter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Writes the recorded runs as a Chrome trace. Commands that are still running are written as ending now.
+     *
+     * @param directory the directory to write the trace file to
+     *
+     * @return the trace file
+     *
+     * @throws IOException if the file could not be written
+     *
+     * @since 1.0.6
+     */
+    public static Path write(Path directory) throws IOException {
+        return writeFile(directory, buildTrace());
+    }
+
+    private static Path writeFile(Path directory, String trace) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("trace_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".json");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(trace);
+        }
+        return file;
+    }
+
+    /**
+     * Builds the Chrome trace JSON. Each command gets its own row, named after the command.
+     */
+    private static String buildTrace() {
+        StringBuilder json = new StringBuilder(256 + (int) Math.min(recordCount, MAX_RECORDS) * 200);
+        json.append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+
+        boolean first = true;
+        for (int i = 0; i < commandCount; i++) {
+            first = appendSeparator(json, first);
+            json.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(i)
+                    .append(",\"args\":{\"name\":");
+            appendString(json, commandNames[i]);
+            json.append("}}");
+        }
+
+        long oldest = Math.max(0, recordCount - MAX_RECORDS);
+        for (long i = oldest; i < recordCount; i++) {
+            int record = (int) (i % MAX_RECORDS);
+            first = appendSeparator(json, first);
+            appendEvent(json, recordCommand[record], recordStart[record], recordEnd[record],
+                    recordExecuteNanos[record], recordExecutes[record], recordInterrupted[record] ? "interrupted" : "finished");
+        }
+
+        long now = RobotController.getFPGATime();
+        for (int i = 0; i < commandCount; i++) {
+            if (activeStart[i] >= 0) {
+                first = appendSeparator(json, first);
+                appendEvent(json, i, activeStart[i], now, activeExecuteNanos[i], activeExecutes[i], "running");
+            }
+        }
+
+        return json.append("\n]}\n").toString();
+    }
+
+    private static void appendEvent(StringBuilder json, int command, long start, long end,
+                                    long executeNanos, int executes, String result) {
+        json.append("{\"name\":");
+        appendString(json, commandNames[command]);
+        json.append(",\"cat\":\"command\",\"ph\":\"X\",\"pid\":1,\"tid\":").append(command)
+                .append(",\"ts\":").append(start)
+                .append(",\"dur\":").append(end - start)
+                .append(",\"args\":{\"result\":\"").append(result)
+                .append("\",\"executes\":").append(executes)
+                .append(",\"execute ms\":").append(String.format(Locale.ROOT, "%.3f", executeNanos / 1e6))
+                .append("}}");
+    }
+
+    private static boolean appendSeparator(StringBuilder json, boolean first) {
+        if (!first) {
+            json.append(",\n");
+        }
+        return false;
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
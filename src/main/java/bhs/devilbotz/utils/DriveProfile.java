@@ -0,0 +1,124 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+import bhs.devilbotz.Constants;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.trajectory.Trajectory;
+
+/**
+ * A trajectory converted into evenly spaced points for each side of the drive,
+ * in the units the Talon SRX motion profile executor uses.
+ * <p>
+ * Positions are relative to the start of the profile, in encoder ticks. Velocities are in
+ * ticks per 100 ms, and the feedforward is a fraction of 12 volts.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class DriveProfile {
+    private static final SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(
+            Constants.AutoConstants.KS_VOLTS,
+            Constants.AutoConstants.KV_VOLT_SECONDS_PER_METER,
+            Constants.AutoConstants.KA_VOLT_SECONDS_SQUARED_PER_METER);
+
+    public final int pointPeriodMs;
+    public final double[] leftPosition;
+    public final double[] leftVelocity;
+    public final double[] leftFeedforward;
+    public final double[] rightPosition;
+    public final double[] rightVelocity;
+    public final double[] rightFeedforward;
+
+    private DriveProfile(int pointPeriodMs, int length) {
+        this.pointPeriodMs = pointPeriodMs;
+        leftPosition = new double[length];
+        leftVelocity = new double[length];
+        leftFeedforward = new double[length];
+        rightPosition = new double[length];
+        rightVelocity = new double[length];
+        rightFeedforward = new double[length];
+    }
+
+    /**
+     * Samples a trajectory into a drive profile
+     *
+     * @param trajectory the trajectory to convert
+     * @param pointPeriodMs the time between points in milliseconds
+     *
+     * @return the profile, with no points if the trajectory is empty
+     *
+     * @since 1.0.6
+     */
+    public static DriveProfile fromTrajectory(Trajectory trajectory, int pointPeriodMs) {
+        if (trajectory.getStates().isEmpty()) {
+            return new DriveProfile(pointPeriodMs, 0);
+        }
+
+        double period = pointPeriodMs / 1000.0;
+        int length = (int) Math.ceil(trajectory.getTotalTimeSeconds() / period) + 1;
+        DriveProfile profile = new DriveProfile(pointPeriodMs, length);
+
+        double halfTrackWidth = Constants.AutoConstants.TRACK_WIDTH_METERS / 2;
+        double leftMeters = 0;
+        double rightMeters = 0;
+        double previousLeft = 0;
+        double previousRight = 0;
+        for (int i = 0; i < length; i++) {
+            Trajectory.State state = trajectory.sample(Math.min(i * period, trajectory.getTotalTimeSeconds()));
+            double turnRate = state.velocityMetersPerSecond * state.curvatureRadPerMeter;
+            double left = state.velocityMetersPerSecond - turnRate * halfTrackWidth;
+            double right = state.velocityMetersPerSecond + turnRate * halfTrackWidth;
+
+            if (i > 0) {
+                // Trapezoidal integration keeps the wheel distance in step with the trajectory
+                leftMeters += (left + previousLeft) / 2 * period;
+                rightMeters += (right + previousRight) / 2 * period;
+            }
+            double leftAcceleration = i > 0 ? (left - previousLeft) / period : 0;
+            double rightAcceleration = i > 0 ? (right - previousRight) / period : 0;
+            previousLeft = left;
+            previousRight = right;
+
+            profile.leftPosition[i] = leftMeters / Constants.AutoConstants.METERS_PER_TICK;
+            profile.rightPosition[i] = rightMeters / Constants.AutoConstants.METERS_PER_TICK;
+            profile.leftVelocity[i] = left / Constants.AutoConstants.METERS_PER_TICK / 10;
+            profile.rightVelocity[i] = right / Constants.AutoConstants.METERS_PER_TICK / 10;
+            profile.leftFeedforward[i] = feedforward.calculate(left, leftAcceleration) / 12.0;
+            profile.rightFeedforward[i] = feedforward.calculate(right, rightAcceleration) / 12.0;
+        }
+        return profile;
+    }
+
+    /**
+     * Gets the number of points on each side
+     *
+     * @return the point count
+     *
+     * @since 1.0.6
+     */
+    public int length() {
+        return leftPosition.length;
+    }
+
+    /**
+     * Gets how long the profile takes to run
+     *
+     * @return the duration in seconds
+     *
+     * @since 1.0.6
+     */
+    public double getDurationSeconds() {
+        return length() * pointPeriodMs / 1000.0;
+    }
+}
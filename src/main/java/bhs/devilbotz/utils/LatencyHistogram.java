@@ -0,0 +1,144 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+/**
+ * Fixed-bucket histogram of durations measured in nanoseconds.
+ * <p>
+ * All storage is allocated in the constructor so {@link #record(long)} can be called
+ * from the robot loop without creating garbage.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class LatencyHistogram {
+    private final long bucketWidthNanos;
+    // The last bucket collects every sample that is larger than the histogram range
+    private final int[] buckets;
+
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * LatencyHistogram constructor
+     *
+     * @param bucketWidthNanos the width of a single bucket in nanoseconds
+     * @param bucketCount the number of buckets, not counting the overflow bucket
+     *
+     * @since 1.0.6
+     */
+    public LatencyHistogram(long bucketWidthNanos, int bucketCount) {
+        this.bucketWidthNanos = bucketWidthNanos;
+        this.buckets = new int[bucketCount + 1];
+    }
+
+    /**
+     * Adds a sample to the histogram
+     *
+     * @param nanos the measured duration in nanoseconds
+     *
+     * @since 1.0.6
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        long index = nanos / bucketWidthNanos;
+        if (index >= buckets.length - 1) {
+            index = buckets.length - 1;
+        }
+        buckets[(int) index]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+
+    /**
+     * Gets a percentile of the recorded samples. The result is the upper edge of the
+     * bucket the percentile falls in, capped to the largest recorded sample.
+     *
+     * @param percentile the percentile to look up, between 0 and 1
+     *
+     * @return the percentile in milliseconds, or 0 if nothing has been recorded
+     *
+     * @since 1.0.6
+     */
+    public double getPercentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(percentile * count);
+        if (target < 1) {
+            target = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                long upperEdge = (i + 1) * bucketWidthNanos;
+                return Math.min(upperEdge, maxNanos) / 1.0e6;
+            }
+        }
+        return maxNanos / 1.0e6;
+    }
+
+    /**
+     * Gets the largest recorded sample
+     *
+     * @return the largest sample in milliseconds
+     *
+     * @since 1.0.6
+     */
+    public double getMaxMillis() {
+        return maxNanos / 1.0e6;
+    }
+
+    /**
+     * Gets the average of all recorded samples
+     *
+     * @return the mean in milliseconds, or 0 if nothing has been recorded
+     *
+     * @since 1.0.6
+     */
+    public double getMeanMillis() {
+        return count == 0 ? 0 : (totalNanos / (double) count) / 1.0e6;
+    }
+
+    /**
+     * Gets the number of recorded samples
+     *
+     * @return the sample count
+     *
+     * @since 1.0.6
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Clears every recorded sample
+     *
+     * @since 1.0.6
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+}
@@ -0,0 +1,262 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Times every subsystem periodic() and every command execute() run by the {@link CommandScheduler}.
+ * <p>
+ * The scheduler runs subsystems in registration order, so the profiler re-registers the subsystems
+ * with a marker subsystem in front of each one. Each marker closes the timing section of the
+ * subsystem before it. Commands are timed from the onCommandExecute callback, so a command's time
+ * also includes the isFinished() call of the command that ran before it.
+ * <p>
+ * Results are kept in preallocated {@link LatencyHistogram}s and published to the "LoopProfiler"
+ * NetworkTable once a second. The histograms are cleared each time the robot changes mode, so the results
+ * cover the current mode only and a bad autonomous is not hidden by a long disabled period. The last
+ * results of a mode are published before they are cleared, and "Mode" names the mode they cover.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class LoopProfiler {
+    // 50 microsecond buckets covering 0 - 50 ms
+    private static final long BUCKET_WIDTH_NANOS = 50_000;
+    private static final int BUCKET_COUNT = 1000;
+
+    private static final int MAX_COMMANDS = 64;
+    private static final int PUBLISH_PERIOD_LOOPS = 50;
+
+    private final NetworkTable table = NetworkTableInstance.getDefault().getTable("LoopProfiler");
+    private final NetworkTableEntry modeEntry = table.getEntry("Mode");
+
+    private final Section schedulerSection = new Section("Scheduler");
+    private final Section buttonsSection = new Section("Buttons");
+    private Section[] subsystemSections = new Section[0];
+
+    private final Section[] commandSections = new Section[MAX_COMMANDS];
+    private final IdentityHashMap<Command, Section> commandLookup = new IdentityHashMap<>(MAX_COMMANDS * 2);
+    private final Section otherCommandsSection = new Section("Commands/Other");
+    private int commandCount = 0;
+
+    private long loopStartNanos;
+    private long lastMarkNanos;
+    private int loopsSincePublish = 0;
+    private Mode mode = Mode.DISABLED;
+
+    /**
+     * Registers the profiler with the {@link CommandScheduler}.
+     * <p>
+     * This should be called once, after default commands and button bindings are configured.
+     *
+     * @param subsystems the subsystems to profile
+     *
+     * @since 1.0.6
+     */
+    public void install(Subsystem... subsystems) {
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+
+        // Unregistering a subsystem drops its default command, so remember them first
+        Command[] defaultCommands = new Command[subsystems.length];
+        for (int i = 0; i < subsystems.length; i++) {
+            defaultCommands[i] = scheduler.getDefaultCommand(subsystems[i]);
+        }
+
+        scheduler.unregisterSubsystem(subsystems);
+
+        subsystemSections = new Section[subsystems.length];
+        for (int i = 0; i < subsystems.length; i++) {
+            subsystemSections[i] = new Section("Subsystems/" + subsystems[i].getClass().getSimpleName());
+            scheduler.registerSubsystem(new Marker(i), subsystems[i]);
+            if (defaultCommands[i] != null) {
+                scheduler.setDefaultCommand(subsystems[i], defaultCommands[i]);
+            }
+        }
+        scheduler.registerSubsystem(new Marker(subsystems.length));
+
+        // Buttons are polled after the subsystems, in the order they were bound
+        scheduler.addButton(this::markButtons);
+        scheduler.onCommandExecute(this::markCommand);
+    }
+
+    /**
+     * Marks the start of a scheduler run
+     *
+     * @since 1.0.6
+     */
+    public void startLoop() {
+        Mode currentMode = getMode();
+        if (currentMode != mode) {
+            publish();
+            reset();
+            loopsSincePublish = 0;
+            mode = currentMode;
+        }
+
+        loopStartNanos = System.nanoTime();
+        lastMarkNanos = loopStartNanos;
+    }
+
+    /**
+     * Marks the end of a scheduler run and publishes the results when it is time to
+     *
+     * @since 1.0.6
+     */
+    public void endLoop() {
+        schedulerSection.histogram.record(System.nanoTime() - loopStartNanos);
+
+        loopsSincePublish++;
+        if (loopsSincePublish >= PUBLISH_PERIOD_LOOPS) {
+            loopsSincePublish = 0;
+            publish();
+        }
+    }
+
+    /**
+     * Clears every histogram
+     *
+     * @since 1.0.6
+     */
+    public void reset() {
+        schedulerSection.histogram.reset();
+        buttonsSection.histogram.reset();
+        otherCommandsSection.histogram.reset();
+        for (Section section : subsystemSections) {
+            section.histogram.reset();
+        }
+        for (int i = 0; i < commandCount; i++) {
+            commandSections[i].histogram.reset();
+        }
+    }
+
+    private void markSubsystem(int index) {
+        long now = System.nanoTime();
+        if (index > 0) {
+            subsystemSections[index - 1].histogram.record(now - lastMarkNanos);
+        }
+        lastMarkNanos = now;
+    }
+
+    private void markButtons() {
+        long now = System.nanoTime();
+        buttonsSection.histogram.record(now - lastMarkNanos);
+        lastMarkNanos = now;
+    }
+
+    private void markCommand(Command command) {
+        long now = System.nanoTime();
+        getCommandSection(command).histogram.record(now - lastMarkNanos);
+        lastMarkNanos = now;
+    }
+
+    private Section getCommandSection(Command command) {
+        Section section = commandLookup.get(command);
+        if (section == null) {
+            // Only allocates the first time a command is seen
+            if (commandCount >= MAX_COMMANDS) {
+                section = otherCommandsSection;
+            } else {
+                section = new Section("Commands/" + command.getName());
+                commandSections[commandCount++] = section;
+            }
+            commandLookup.put(command, section);
+        }
+        return section;
+    }
+
+    private static Mode getMode() {
+        if (DriverStation.isDisabled()) {
+            return Mode.DISABLED;
+        } else if (DriverStation.isAutonomous()) {
+            return Mode.AUTONOMOUS;
+        } else if (DriverStation.isTest()) {
+            return Mode.TEST;
+        }
+        return Mode.TELEOP;
+    }
+
+    private void publish() {
+        modeEntry.setString(mode.name());
+        schedulerSection.publish();
+        buttonsSection.publish();
+        for (Section section : subsystemSections) {
+            section.publish();
+        }
+        for (int i = 0; i < commandCount; i++) {
+            commandSections[i].publish();
+        }
+        if (otherCommandsSection.histogram.getCount() > 0) {
+            otherCommandsSection.publish();
+        }
+    }
+
+    /**
+     * The robot modes the results are split by
+     */
+    private enum Mode {
+        DISABLED,
+        AUTONOMOUS,
+        TELEOP,
+        TEST
+    }
+
+    /**
+     * A single timed code path and its NetworkTables entries
+     */
+    private class Section {
+        private final LatencyHistogram histogram = new LatencyHistogram(BUCKET_WIDTH_NANOS, BUCKET_COUNT);
+        private final NetworkTableEntry p50Entry;
+        private final NetworkTableEntry p99Entry;
+        private final NetworkTableEntry maxEntry;
+        private final NetworkTableEntry countEntry;
+
+        private Section(String name) {
+            p50Entry = table.getEntry(name + "/p50 ms");
+            p99Entry = table.getEntry(name + "/p99 ms");
+            maxEntry = table.getEntry(name + "/max ms");
+            countEntry = table.getEntry(name + "/count");
+        }
+
+        private void publish() {
+            p50Entry.setDouble(histogram.getPercentileMillis(0.50));
+            p99Entry.setDouble(histogram.getPercentileMillis(0.99));
+            maxEntry.setDouble(histogram.getMaxMillis());
+            countEntry.setDouble(histogram.getCount());
+        }
+    }
+
+    /**
+     * Empty subsystem that records a timestamp when the scheduler reaches it
+     */
+    private class Marker implements Subsystem {
+        private final int index;
+
+        private Marker(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void periodic() {
+            markSubsystem(index);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.RobotBase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Loads the PathPlanner trajectories packed by the compilePaths Gradle task.
+ * <p>
+ * The packed file is memory mapped the first time a path is requested, and only its index is read.
+ * Each {@link Trajectory} is built from the mapped doubles the first time it is loaded and then cached,
+ * so no JSON is parsed on the robot.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public final class PathLoader {
+    private static final int MAGIC = 0x44425450;
+    private static final int VERSION = 1;
+    private static final int DOUBLES_PER_STATE = 7;
+
+    private static final HashMap<String, PathEntry> index = new HashMap<>();
+    private static final HashMap<String, Trajectory> cache = new HashMap<>();
+    private static ByteBuffer buffer;
+
+    private PathLoader() {
+    }
+
+    /**
+     * Gets a trajectory by path name
+     *
+     * @param name the path name, without the .path extension
+     *
+     * @return the trajectory, or an empty trajectory if the path could not be loaded
+     *
+     * @since 1.0.6
+     */
+    public static synchronized Trajectory load(String name) {
+        Trajectory trajectory = cache.get(name);
+        if (trajectory == null) {
+            PathEntry entry = open() ? index.get(name) : null;
+            if (entry == null) {
+                DriverStation.reportError("Could not load path " + name, false);
+                trajectory = new Trajectory();
+            } else {
+                trajectory = readTrajectory(entry);
+            }
+            cache.put(name, trajectory);
+        }
+        return trajectory;
+    }
+
+    /**
+     * Maps the packed path file and reads its index, if that has not been done yet
+     *
+     * @return true if the file is available
+     */
+    private static boolean open() {
+        if (buffer != null) {
+            return true;
+        }
+
+        // The robot gets the file deployed with the jar, the simulation reads it where the build wrote it
+        Path file = RobotBase.isReal()
+                ? Filesystem.getDeployDirectory().toPath().resolve("pathplanner/compiled/paths.bin")
+                : Filesystem.getOperatingDirectory().toPath().resolve("build/pathplanner/paths.bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+                DriverStation.reportError("Unknown path file format " + file, false);
+                return false;
+            }
+
+            int pathCount = mapped.getInt();
+            for (int i = 0; i < pathCount; i++) {
+                byte[] nameBytes = new byte[mapped.getShort() & 0xFFFF];
+                mapped.get(nameBytes);
+                int stateCount = mapped.getInt();
+                long offset = mapped.getLong();
+                index.put(new String(nameBytes, StandardCharsets.UTF_8), new PathEntry((int) offset, stateCount));
+            }
+            buffer = mapped;
+            return true;
+        } catch (IOException e) {
+            DriverStation.reportError("Could not open path file " + file + ": " + e.getMessage(), false);
+            return false;
+        }
+    }
+
+    private static Trajectory readTrajectory(PathEntry entry) {
+        ArrayList<Trajectory.State> states = new ArrayList<>(entry.stateCount);
+        int position = entry.offset;
+        for (int i = 0; i < entry.stateCount; i++) {
+            double time = buffer.getDouble(position);
+            double velocity = buffer.getDouble(position + 8);
+            double acceleration = buffer.getDouble(position + 16);
+            double x = buffer.getDouble(position + 24);
+            double y = buffer.getDouble(position + 32);
+            double radians = buffer.getDouble(position + 40);
+            double curvature = buffer.getDouble(position + 48);
+            states.add(new Trajectory.State(time, velocity, acceleration,
+                    new Pose2d(x, y, new Rotation2d(radians)), curvature));
+            position += DOUBLES_PER_STATE * Double.BYTES;
+        }
+        return new Trajectory(states);
+    }
+
+    /**
+     * Where a path is stored in the packed file
+     */
+    private static class PathEntry {
+        private final int offset;
+        private final int stateCount;
+
+        private PathEntry(int offset, int stateCount) {
+            this.offset = offset;
+            this.stateCount = stateCount;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Fixed-size ring buffer of timestamped robot poses, used to look up where the robot was
+ * when a delayed measurement (such as a vision frame) was taken.
+ * <p>
+ * Poses are stored as plain doubles so {@link #add(double, Pose2d)} can be called every loop
+ * without creating garbage.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class PoseHistory {
+    private final double[] timestamps;
+    private final double[] x;
+    private final double[] y;
+    private final double[] radians;
+
+    // Index of the next slot to write
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * PoseHistory constructor
+     *
+     * @param capacity the number of poses to keep
+     *
+     * @since 1.0.6
+     */
+    public PoseHistory(int capacity) {
+        timestamps = new double[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        radians = new double[capacity];
+    }
+
+    /**
+     * Adds a pose. Timestamps must be added in increasing order.
+     *
+     * @param timestamp the time of the pose in seconds
+     * @param pose the pose
+     *
+     * @since 1.0.6
+     */
+    public void add(double timestamp, Pose2d pose) {
+        timestamps[head] = timestamp;
+        x[head] = pose.getX();
+        y[head] = pose.getY();
+        radians[head] = pose.getRotation().getRadians();
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Gets the pose at a point in time, interpolating between the two closest samples.
+     * Times outside the buffer are clamped to the oldest or newest pose.
+     *
+     * @param timestamp the time to look up in seconds
+     *
+     * @return the pose at that time, or null if the buffer is empty
+     *
+     * @since 1.0.6
+     */
+    public Pose2d getPose(double timestamp) {
+        if (size == 0) {
+            return null;
+        }
+
+        int newest = index(size - 1);
+        if (timestamp >= timestamps[newest]) {
+            return toPose(newest);
+        }
+        int oldest = index(0);
+        if (timestamp <= timestamps[oldest]) {
+            return toPose(oldest);
+        }
+
+        // Walk back from the newest sample, recent lookups are the common case
+        for (int i = size - 2; i >= 0; i--) {
+            int before = index(i);
+            if (timestamps[before] <= timestamp) {
+                int after = index(i + 1);
+                double t = (timestamp - timestamps[before]) / (timestamps[after] - timestamps[before]);
+                Rotation2d rotation = new Rotation2d(radians[before])
+                        .interpolate(new Rotation2d(radians[after]), t);
+                return new Pose2d(x[before] + (x[after] - x[before]) * t,
+                        y[before] + (y[after] - y[before]) * t, rotation);
+            }
+        }
+        return toPose(oldest);
+    }
+
+    /**
+     * Removes every pose
+     *
+     * @since 1.0.6
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private int index(int age) {
+        // age 0 is the oldest sample
+        return (head - size + age + timestamps.length) % timestamps.length;
+    }
+
+    private Pose2d toPose(int index) {
+        return new Pose2d(x[index], y[index], new Rotation2d(radians[index]));
+    }
+}
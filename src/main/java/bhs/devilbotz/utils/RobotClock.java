@@ -0,0 +1,55 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Time source for robot code that measures durations.
+ * <p>
+ * The time is the FPGA timestamp taken when the loop's inputs were read, so every command in a loop sees
+ * the same time, and a replayed log runs on its recorded time. In simulation the FPGA clock follows
+ * SimHooks, so timed commands can be stepped faster than real time. Do not use
+ * System.currentTimeMillis() for robot timing.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public final class RobotClock {
+    private static double loopTimestamp = Double.NaN;
+
+    private RobotClock() {
+    }
+
+    /**
+     * Sets the time of the current loop. Called once per loop when the inputs are read.
+     *
+     * @param timestamp the input timestamp in seconds
+     *
+     * @since 1.0.6
+     */
+    public static void update(double timestamp) {
+        loopTimestamp = timestamp;
+    }
+
+    /**
+     * Gets the time of the current loop
+     *
+     * @return the time in seconds, or the FPGA timestamp before the first loop
+     *
+     * @since 1.0.6
+     */
+    public static double getTimestamp() {
+        return Double.isNaN(loopTimestamp) ? Timer.getFPGATimestamp() : loopTimestamp;
+    }
+}
@@ -0,0 +1,113 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Tuning values that a simulation run can override, so a sweep can try many values without editing code.
+ * <p>
+ * The overrides come from the SIM_PARAMS environment variable as comma separated name=value pairs, for
+ * example "Shooter/kP=0.0002,DriveTrain/Slew Rate=4". On the robot the defaults are always used. Values
+ * are read when the code that uses them is constructed, so {@link #checkAllRead()} can catch a misspelled
+ * name, or one the running code never uses, once the robot code has been created.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public final class SimParameters {
+    private static final Map<String, Double> overrides = parse(System.getenv("SIM_PARAMS"));
+    private static final Set<String> readNames = new HashSet<>();
+
+    private SimParameters() {
+    }
+
+    /**
+     * Gets a tuning value
+     *
+     * @param name the parameter name
+     * @param defaultValue the value used on the robot and when the parameter is not overridden
+     *
+     * @return the value to use
+     *
+     * @since 1.0.6
+     */
+    public static double get(String name, double defaultValue) {
+        if (RobotBase.isReal()) {
+            return defaultValue;
+        }
+        readNames.add(name);
+        return overrides.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Gets whether a tuning value is overridden. This counts as reading it.
+     *
+     * @param name the parameter name
+     *
+     * @return true if the simulation run sets this parameter
+     *
+     * @since 1.0.6
+     */
+    public static boolean isOverridden(String name) {
+        if (RobotBase.isReal()) {
+            return false;
+        }
+        readNames.add(name);
+        return overrides.containsKey(name);
+    }
+
+    /**
+     * Checks that every overridden parameter has been read, so a sweep never silently runs with values
+     * that have no effect
+     *
+     * @throws IllegalStateException if a parameter was never read
+     *
+     * @since 1.0.6
+     */
+    public static void checkAllRead() {
+        Set<String> unread = new TreeSet<>(overrides.keySet());
+        unread.removeAll(readNames);
+        if (!unread.isEmpty()) {
+            throw new IllegalStateException("SIM_PARAMS sets parameters the robot code never reads: " + unread);
+        }
+    }
+
+    private static Map<String, Double> parse(String params) {
+        Map<String, Double> values = new HashMap<>();
+        if (params == null || params.isEmpty()) {
+            return values;
+        }
+        for (String pair : params.split(",")) {
+            int equals = pair.indexOf('=');
+            if (equals <= 0) {
+                DriverStation.reportWarning("Ignoring SIM_PARAMS entry " + pair, false);
+                continue;
+            }
+            String name = pair.substring(0, equals).trim();
+            try {
+                values.put(name, Double.parseDouble(pair.substring(equals + 1).trim()));
+            } catch (NumberFormatException e) {
+                DriverStation.reportWarning("Ignoring SIM_PARAMS entry " + pair, false);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,260 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.RobotController;
+
+import java.util.ArrayList;
+
+/**
+ * Dashboard publisher for values that change every loop.
+ * <p>
+ * Each signal resolves its {@link NetworkTableEntry} once when it is created. Setting a signal only stores
+ * the value, and {@link #flush()} writes every changed signal in one pass at the end of the loop, no more
+ * often than the rate the signal was created with. Tunable numbers are read back the same way, so the
+ * dashboard is not polled with a string lookup every loop.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public final class Telemetry {
+    private static final NetworkTable smartDashboard = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+
+    // Tunables are only read from the dashboard five times a second
+    private static final double TUNABLE_RATE_HZ = 5;
+
+    private static final ArrayList<Signal> signals = new ArrayList<>();
+    private static final ArrayList<TunableNumber> tunables = new ArrayList<>();
+
+    private Telemetry() {
+    }
+
+    /**
+     * Creates a number on SmartDashboard that is published every time it changes
+     *
+     * @param key the SmartDashboard key
+     *
+     * @return the signal
+     *
+     * @since 1.0.6
+     */
+    public static DoubleSignal number(String key) {
+        return number(smartDashboard.getEntry(key), 0);
+    }
+
+    /**
+     * Creates a number on SmartDashboard that is published when it changes, at most rateHz times a second
+     *
+     * @param key the SmartDashboard key
+     * @param rateHz the maximum publish rate, or 0 to publish on every change
+     *
+     * @return the signal
+     *
+     * @since 1.0.6
+     */
+    public static DoubleSignal number(String key, double rateHz) {
+        return number(smartDashboard.getEntry(key), rateHz);
+    }
+
+    /**
+     * Wraps an existing entry, such as a Shuffleboard widget
+     *
+     * @param entry the entry to publish to
+     * @param rateHz the maximum publish rate, or 0 to publish on every change
+     *
+     * @return the signal
+     *
+     * @since 1.0.6
+     */
+    public static DoubleSignal number(NetworkTableEntry entry, double rateHz) {
+        DoubleSignal signal = new DoubleSignal(entry, rateHz);
+        signals.add(signal);
+        return signal;
+    }
+
+    public static BooleanSignal bool(String key) {
+        return bool(smartDashboard.getEntry(key), 0);
+    }
+
+    public static BooleanSignal bool(String key, double rateHz) {
+        return bool(smartDashboard.getEntry(key), rateHz);
+    }
+
+    public static BooleanSignal bool(NetworkTableEntry entry, double rateHz) {
+        BooleanSignal signal = new BooleanSignal(entry, rateHz);
+        signals.add(signal);
+        return signal;
+    }
+
+    public static StringSignal string(String key) {
+        return string(smartDashboard.getEntry(key), 0);
+    }
+
+    public static StringSignal string(String key, double rateHz) {
+        return string(smartDashboard.getEntry(key), rateHz);
+    }
+
+    public static StringSignal string(NetworkTableEntry entry, double rateHz) {
+        StringSignal signal = new StringSignal(entry, rateHz);
+        signals.add(signal);
+        return signal;
+    }
+
+    /**
+     * Creates a number on SmartDashboard that can be edited from the dashboard
+     *
+     * @param key the SmartDashboard key
+     * @param defaultValue the value to put on the dashboard
+     *
+     * @return the tunable number
+     *
+     * @since 1.0.6
+     */
+    public static TunableNumber tunable(String key, double defaultValue) {
+        TunableNumber tunable = new TunableNumber(smartDashboard.getEntry(key), defaultValue);
+        tunables.add(tunable);
+        return tunable;
+    }
+
+    /**
+     * Publishes every changed signal that is due and refreshes the tunable numbers.
+     * This should be called once at the end of every loop.
+     *
+     * @since 1.0.6
+     */
+    public static void flush() {
+        long now = RobotController.getFPGATime();
+
+        for (int i = 0; i < signals.size(); i++) {
+            Signal signal = signals.get(i);
+            if (signal.dirty && now - signal.lastPublish >= signal.periodMicros) {
+                signal.write();
+                signal.dirty = false;
+                signal.lastPublish = now;
+            }
+        }
+
+        for (int i = 0; i < tunables.size(); i++) {
+            TunableNumber tunable = tunables.get(i);
+            if (now - tunable.lastRead >= tunable.periodMicros) {
+                tunable.value = tunable.entry.getDouble(tunable.value);
+                tunable.lastRead = now;
+            }
+        }
+    }
+
+    /**
+     * Base class for a published value
+     */
+    public abstract static class Signal {
+        final NetworkTableEntry entry;
+        final long periodMicros;
+        long lastPublish = Long.MIN_VALUE / 2;
+        boolean dirty = true;
+
+        Signal(NetworkTableEntry entry, double rateHz) {
+            this.entry = entry;
+            this.periodMicros = rateHz > 0 ? (long) (1e6 / rateHz) : 0;
+        }
+
+        abstract void write();
+    }
+
+    public static final class DoubleSignal extends Signal {
+        private double value;
+
+        DoubleSignal(NetworkTableEntry entry, double rateHz) {
+            super(entry, rateHz);
+        }
+
+        public void set(double value) {
+            if (value != this.value) {
+                this.value = value;
+                dirty = true;
+            }
+        }
+
+        @Override
+        void write() {
+            entry.setDouble(value);
+        }
+    }
+
+    public static final class BooleanSignal extends Signal {
+        private boolean value;
+
+        BooleanSignal(NetworkTableEntry entry, double rateHz) {
+            super(entry, rateHz);
+        }
+
+        public void set(boolean value) {
+            if (value != this.value) {
+                this.value = value;
+                dirty = true;
+            }
+        }
+
+        @Override
+        void write() {
+            entry.setBoolean(value);
+        }
+    }
+
+    public static final class StringSignal extends Signal {
+        private String value = "";
+
+        StringSignal(NetworkTableEntry entry, double rateHz) {
+            super(entry, rateHz);
+        }
+
+        public void set(String value) {
+            if (!value.equals(this.value)) {
+                this.value = value;
+                dirty = true;
+            }
+        }
+
+        @Override
+        void write() {
+            entry.setString(value);
+        }
+    }
+
+    /**
+     * A number that is read back from the dashboard at a low rate
+     */
+    public static final class TunableNumber {
+        private final NetworkTableEntry entry;
+        private final long periodMicros = (long) (1e6 / TUNABLE_RATE_HZ);
+        private long lastRead = Long.MIN_VALUE / 2;
+        private double value;
+
+        TunableNumber(NetworkTableEntry entry, double defaultValue) {
+            this.entry = entry;
+            this.value = defaultValue;
+            entry.setDouble(defaultValue);
+        }
+
+        /**
+         * Gets the last value read from the dashboard
+         *
+         * @return the value
+         */
+        public double get() {
+            return value;
+        }
+    }
+}
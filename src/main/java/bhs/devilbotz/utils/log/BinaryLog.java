@@ -0,0 +1,269 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils.log;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * Records signals every loop into a compact binary log, see {@link LogFormat}.
+ * <p>
+ * Signals are registered before {@link #start()}. After that, {@link #sample(long)} copies one frame per loop
+ * into a preallocated ring buffer and returns, which costs a few hundred nanoseconds. A {@link LogFileWriter}
+ * thread drains the ring buffer to a memory-mapped file. If the writer falls behind and the ring fills up,
+ * frames are dropped and counted instead of blocking the loop.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class BinaryLog {
+    // Five seconds of frames at 50 Hz
+    private static final int RING_FRAMES = 256;
+
+    private final Path directory;
+    private final ArrayList<Channel> channels = new ArrayList<>();
+    private Channel[] channelArray;
+
+    private int frameSize = LogFormat.TIMESTAMP_SIZE;
+    private ByteBuffer ring;
+
+    // Frames written by the loop thread and frames consumed by the writer thread
+    private volatile long produced = 0;
+    private volatile long consumed = 0;
+    private volatile long dropped = 0;
+
+    private LogFileWriter writer;
+
+    /**
+     * BinaryLog constructor
+     *
+     * @param directory the directory log files are written to
+     *
+     * @since 1.0.6
+     */
+    public BinaryLog(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Adds a signal that is logged as a 32 bit float
+     *
+     * @param name the signal name, for example "DriveTrain/LeftPosition"
+     * @param supplier supplies the value every loop
+     *
+     * @since 1.0.6
+     */
+    public void addFloat(String name, DoubleSupplier supplier) {
+        addChannel(new Channel(name, LogFormat.TYPE_FLOAT) {
+            @Override
+            void write(ByteBuffer buffer, int offset) {
+                buffer.putFloat(offset, (float) supplier.getAsDouble());
+            }
+        });
+    }
+
+    /**
+     * Adds a signal that is logged as a 64 bit double, for values that need the extra precision
+     *
+     * @param name the signal name
+     * @param supplier supplies the value every loop
+     *
+     * @since 1.0.6
+     */
+    public void addDouble(String name, DoubleSupplier supplier) {
+        addChannel(new Channel(name, LogFormat.TYPE_DOUBLE) {
+            @Override
+            void write(ByteBuffer buffer, int offset) {
+                buffer.putDouble(offset, supplier.getAsDouble());
+            }
+        });
+    }
+
+    public void addInt(String name, IntSupplier supplier) {
+        addChannel(new Channel(name, LogFormat.TYPE_INT) {
+            @Override
+            void write(ByteBuffer buffer, int offset) {
+                buffer.putInt(offset, supplier.getAsInt());
+            }
+        });
+    }
+
+    public void addBoolean(String name, BooleanSupplier supplier) {
+        addChannel(new Channel(name, LogFormat.TYPE_BOOLEAN) {
+            @Override
+            void write(ByteBuffer buffer, int offset) {
+                buffer.put(offset, supplier.getAsBoolean() ? (byte) 1 : (byte) 0);
+            }
+        });
+    }
+
+    private void addChannel(Channel channel) {
+        if (ring != null) {
+            throw new IllegalStateException("Signals must be added before the log is started");
+        }
+        channel.offset = frameSize;
+        frameSize += LogFormat.sizeOf(channel.type);
+        channels.add(channel);
+    }
+
+    /**
+     * Allocates the ring buffer and starts the writer thread
+     *
+     * @since 1.0.6
+     */
+    public void start() {
+        channelArray = channels.toArray(new Channel[0]);
+        ring = ByteBuffer.allocate(frameSize * RING_FRAMES).order(LogFormat.BYTE_ORDER);
+        writer = new LogFileWriter(this, directory);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer thread after it has written every pending frame
+     *
+     * @since 1.0.6
+     */
+    public void stop() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * Records one frame. This should be called once per loop from the robot thread.
+     *
+     * @param timestampMicros the FPGA timestamp of the frame in microseconds
+     *
+     * @since 1.0.6
+     */
+    public void sample(long timestampMicros) {
+        if (ring == null) {
+            return;
+        }
+        long frame = produced;
+        if (frame - consumed >= RING_FRAMES) {
+            dropped++;
+            return;
+        }
+
+        int base = (int) (frame % RING_FRAMES) * frameSize;
+        ring.putLong(base, timestampMicros);
+        for (Channel channel : channelArray) {
+            channel.write(ring, base + channel.offset);
+        }
+
+        // Publishes the frame to the writer thread
+        produced = frame + 1;
+    }
+
+    /**
+     * Builds the file header describing every signal
+     *
+     * @return the header bytes
+     */
+    byte[] buildHeader() {
+        int size = Integer.BYTES + Short.BYTES + Integer.BYTES + Integer.BYTES;
+        byte[][] names = new byte[channelArray.length][];
+        for (int i = 0; i < channelArray.length; i++) {
+            names[i] = channelArray[i].name.getBytes(StandardCharsets.UTF_8);
+            size += 1 + Short.BYTES + names[i].length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(size).order(LogFormat.BYTE_ORDER);
+        header.putInt(LogFormat.MAGIC);
+        header.putShort(LogFormat.VERSION);
+        header.putInt(channelArray.length);
+        for (int i = 0; i < channelArray.length; i++) {
+            header.put(channelArray[i].type);
+            header.putShort((short) names[i].length);
+            header.put(names[i]);
+        }
+        header.putInt(frameSize);
+        return header.array();
+    }
+
+    /**
+     * Copies every frame that has not been written yet into the target buffer.
+     * Only called from the writer thread.
+     *
+     * @param target the buffer to copy into
+     *
+     * @return the number of frames copied
+     */
+    int drainTo(ByteBuffer target) {
+        long available = produced;
+        long frame = consumed;
+        int copied = 0;
+        byte[] ringArray = ring.array();
+        while (frame < available && target.remaining() >= frameSize) {
+            int base = (int) (frame % RING_FRAMES) * frameSize;
+            target.put(ringArray, base, frameSize);
+            frame++;
+            copied++;
+        }
+        consumed = frame;
+        return copied;
+    }
+
+    boolean hasPendingFrames() {
+        return consumed < produced;
+    }
+
+    int getFrameSize() {
+        return frameSize;
+    }
+
+    /**
+     * Gets the number of frames dropped because the writer could not keep up
+     *
+     * @return the dropped frame count
+     *
+     * @since 1.0.6
+     */
+    public long getDroppedFrames() {
+        return dropped;
+    }
+
+    /**
+     * Gets the file currently being written
+     *
+     * @return the log file, or null if the log is not running
+     *
+     * @since 1.0.6
+     */
+    public Path getFile() {
+        return writer == null ? null : writer.getFile();
+    }
+
+    /**
+     * A single logged signal
+     */
+    private abstract static class Channel {
+        final String name;
+        final byte type;
+        int offset;
+
+        Channel(String name, byte type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        abstract void write(ByteBuffer buffer, int offset);
+    }
+}
@@ -0,0 +1,132 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils.log;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background thread that drains a {@link BinaryLog} ring buffer into a memory-mapped file.
+ * <p>
+ * The file is mapped in fixed size chunks. When a chunk is full the next one is mapped, and when the
+ * writer is closed the file is truncated to the data that was actually written.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+class LogFileWriter extends Thread {
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final long DRAIN_PERIOD_NANOS = 20_000_000L;
+    private static final long FORCE_PERIOD_NANOS = 1_000_000_000L;
+
+    private final BinaryLog log;
+    private final Path file;
+
+    private FileChannel channel;
+    private MappedByteBuffer chunk;
+    private long chunkPosition = 0;
+    private long lastForceNanos = System.nanoTime();
+
+    private volatile boolean running = true;
+
+    LogFileWriter(BinaryLog log, Path directory) {
+        super("BinaryLogWriter");
+        setDaemon(true);
+        this.log = log;
+        String name = "log_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + LogFormat.FILE_EXTENSION;
+        this.file = directory.resolve(name);
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void run() {
+        try {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            mapChunk(0);
+            chunk.put(log.buildHeader());
+
+            while (running) {
+                drain();
+                LockSupport.parkNanos(DRAIN_PERIOD_NANOS);
+            }
+            drain();
+            finish();
+        } catch (IOException e) {
+            DriverStation.reportError("Binary log stopped: " + e.getMessage(), e.getStackTrace());
+        }
+    }
+
+    private void drain() throws IOException {
+        while (log.hasPendingFrames()) {
+            if (chunk.remaining() < log.getFrameSize()) {
+                mapChunk(chunkPosition + chunk.position());
+            }
+            log.drainTo(chunk);
+        }
+
+        long now = System.nanoTime();
+        if (now - lastForceNanos >= FORCE_PERIOD_NANOS) {
+            chunk.force();
+            lastForceNanos = now;
+        }
+    }
+
+    private void mapChunk(long position) throws IOException {
+        if (chunk != null) {
+            chunk.force();
+        }
+        chunkPosition = position;
+        chunk = channel.map(FileChannel.MapMode.READ_WRITE, chunkPosition, CHUNK_SIZE);
+        chunk.order(LogFormat.BYTE_ORDER);
+    }
+
+    private void finish() throws IOException {
+        chunk.force();
+        long length = chunkPosition + chunk.position();
+        chunk = null;
+        try {
+            channel.truncate(length);
+        } catch (IOException e) {
+            // Some platforms refuse to truncate a mapped file, the trailing zeros are ignored by the reader
+            DriverStation.reportWarning("Could not truncate binary log: " + e.getMessage(), false);
+        }
+        channel.close();
+    }
+
+    /**
+     * Writes the remaining frames and closes the file
+     */
+    void close() {
+        running = false;
+        LockSupport.unpark(this);
+        try {
+            join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils.log;
+
+import java.nio.ByteOrder;
+
+/**
+ * Constants describing the binary log file format.
+ * <p>
+ * A log file starts with a header:
+ * <pre>
+ * int    MAGIC
+ * short  VERSION
+ * int    signal count
+ * for each signal:
+ *   byte   type (TYPE_FLOAT, TYPE_DOUBLE, TYPE_INT or TYPE_BOOLEAN)
+ *   short  name length
+ *   byte[] name, UTF-8
+ * int    frame size in bytes
+ * </pre>
+ * followed by fixed size frames, one per loop:
+ * <pre>
+ * long   FPGA timestamp in microseconds
+ * value of every signal, in header order
+ * </pre>
+ * Everything is little endian.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public final class LogFormat {
+    public static final int MAGIC = 0x474C4244; // "DBLG"
+    public static final short VERSION = 1;
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    public static final String FILE_EXTENSION = ".dblog";
+
+    public static final byte TYPE_FLOAT = 0;
+    public static final byte TYPE_DOUBLE = 1;
+    public static final byte TYPE_INT = 2;
+    public static final byte TYPE_BOOLEAN = 3;
+
+    // Size of the timestamp at the start of every frame
+    public static final int TIMESTAMP_SIZE = Long.BYTES;
+
+    private LogFormat() {
+    }
+
+    /**
+     * Gets the number of bytes a value of the given type takes in a frame
+     *
+     * @param type the type code
+     *
+     * @return the size in bytes
+     *
+     * @since 1.0.6
+     */
+    public static int sizeOf(byte type) {
+        switch (type) {
+            case TYPE_FLOAT:
+            case TYPE_INT:
+                return 4;
+            case TYPE_DOUBLE:
+                return 8;
+            case TYPE_BOOLEAN:
+                return 1;
+            default:
+                throw new IllegalArgumentException("Unknown log signal type " + type);
+        }
+    }
+}
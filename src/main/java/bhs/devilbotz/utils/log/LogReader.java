@@ -0,0 +1,160 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils.log;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads a binary log written by {@link BinaryLog}. The file is memory-mapped and values are read straight
+ * out of the mapping, nothing is parsed ahead of time except the header.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class LogReader {
+    private final MappedByteBuffer buffer;
+    private final String[] names;
+    private final byte[] types;
+    private final int[] offsets;
+    private final Map<String, Integer> indices = new HashMap<>();
+    private final int frameSize;
+    private final int dataStart;
+    private final int frameCount;
+
+    /**
+     * Opens a log file and reads its header
+     *
+     * @param file the log file
+     *
+     * @throws IOException if the file can not be read or is not a binary log
+     *
+     * @since 1.0.6
+     */
+    public LogReader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(LogFormat.BYTE_ORDER);
+
+        if (buffer.getInt() != LogFormat.MAGIC) {
+            throw new IOException(file + " is not a binary log");
+        }
+        short version = buffer.getShort();
+        if (version != LogFormat.VERSION) {
+            throw new IOException("Unsupported binary log version " + version);
+        }
+
+        int signalCount = buffer.getInt();
+        names = new String[signalCount];
+        types = new byte[signalCount];
+        offsets = new int[signalCount];
+        int offset = LogFormat.TIMESTAMP_SIZE;
+        for (int i = 0; i < signalCount; i++) {
+            types[i] = buffer.get();
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            offsets[i] = offset;
+            offset += LogFormat.sizeOf(types[i]);
+            indices.put(names[i], i);
+        }
+        frameSize = buffer.getInt();
+        if (frameSize != offset) {
+            throw new IOException("Binary log frame size does not match its header");
+        }
+        dataStart = buffer.position();
+
+        // A log that was not closed cleanly ends in zero filled frames
+        int frames = (buffer.capacity() - dataStart) / frameSize;
+        while (frames > 0 && getTimestampMicros(frames - 1) == 0) {
+            frames--;
+        }
+        frameCount = frames;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public int getSignalCount() {
+        return names.length;
+    }
+
+    public String getName(int signal) {
+        return names[signal];
+    }
+
+    public byte getType(int signal) {
+        return types[signal];
+    }
+
+    /**
+     * Looks up a signal by name
+     *
+     * @param name the signal name
+     *
+     * @return the signal index, or -1 if the log does not contain the signal
+     *
+     * @since 1.0.6
+     */
+    public int indexOf(String name) {
+        Integer index = indices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public long getTimestampMicros(int frame) {
+        return buffer.getLong(dataStart + frame * frameSize);
+    }
+
+    /**
+     * Reads a numeric signal, converting it to a double
+     *
+     * @param frame the frame index
+     * @param signal the signal index
+     *
+     * @return the value
+     *
+     * @since 1.0.6
+     */
+    public double getDouble(int frame, int signal) {
+        int position = dataStart + frame * frameSize + offsets[signal];
+        switch (types[signal]) {
+            case LogFormat.TYPE_FLOAT:
+                return buffer.getFloat(position);
+            case LogFormat.TYPE_DOUBLE:
+                return buffer.getDouble(position);
+            case LogFormat.TYPE_INT:
+                return buffer.getInt(position);
+            default:
+                return buffer.get(position) != 0 ? 1 : 0;
+        }
+    }
+
+    public int getInt(int frame, int signal) {
+        if (types[signal] == LogFormat.TYPE_INT) {
+            return buffer.getInt(dataStart + frame * frameSize + offsets[signal]);
+        }
+        return (int) getDouble(frame, signal);
+    }
+
+    public boolean getBoolean(int frame, int signal) {
+        return getDouble(frame, signal) != 0;
+    }
+}
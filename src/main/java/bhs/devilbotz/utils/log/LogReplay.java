@@ -0,0 +1,144 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils.log;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Feeds the frames of a recorded {@link BinaryLog} back into input objects, one frame per loop.
+ * <p>
+ * Inputs are bound by signal name through {@link LoggableInputs#fromLog(LogReplay, String)}. Every call to
+ * {@link #apply()} writes the current frame into all of the bound inputs.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public class LogReplay {
+    private final LogReader reader;
+    private final ArrayList<Binding> bindings = new ArrayList<>();
+    private final ArrayList<DoubleConsumer> timestampBindings = new ArrayList<>();
+    private int frame = -1;
+
+    /**
+     * LogReplay constructor
+     *
+     * @param reader the recorded log
+     *
+     * @since 1.0.6
+     */
+    public LogReplay(LogReader reader) {
+        this.reader = reader;
+    }
+
+    public void bindFloat(String name, DoubleConsumer sink) {
+        bindDouble(name, sink);
+    }
+
+    public void bindDouble(String name, DoubleConsumer sink) {
+        int signal = lookup(name);
+        if (signal >= 0) {
+            bindings.add(frame -> sink.accept(reader.getDouble(frame, signal)));
+        }
+    }
+
+    public void bindInt(String name, IntConsumer sink) {
+        int signal = lookup(name);
+        if (signal >= 0) {
+            bindings.add(frame -> sink.accept(reader.getInt(frame, signal)));
+        }
+    }
+
+    public void bindBoolean(String name, Consumer<Boolean> sink) {
+        int signal = lookup(name);
+        if (signal >= 0) {
+            bindings.add(frame -> sink.accept(reader.getBoolean(frame, signal)));
+        }
+    }
+
+    /**
+     * Binds the frame timestamp, in seconds
+     *
+     * @param sink receives the timestamp of every replayed frame
+     *
+     * @since 1.0.6
+     */
+    public void bindTimestamp(DoubleConsumer sink) {
+        timestampBindings.add(sink);
+    }
+
+    private int lookup(String name) {
+        int signal = reader.indexOf(name);
+        if (signal < 0) {
+            DriverStation.reportWarning("Replayed log has no signal " + name + ", it will keep its default value", false);
+        }
+        return signal;
+    }
+
+    /**
+     * Moves to the next frame
+     *
+     * @return false once every frame has been replayed
+     *
+     * @since 1.0.6
+     */
+    public boolean advance() {
+        if (frame + 1 >= reader.getFrameCount()) {
+            return false;
+        }
+        frame++;
+        return true;
+    }
+
+    /**
+     * Writes the current frame into every bound input
+     *
+     * @since 1.0.6
+     */
+    public void apply() {
+        double timestamp = getTimestamp();
+        for (int i = 0; i < timestampBindings.size(); i++) {
+            timestampBindings.get(i).accept(timestamp);
+        }
+        for (int i = 0; i < bindings.size(); i++) {
+            bindings.get(i).apply(frame);
+        }
+    }
+
+    /**
+     * Gets the timestamp of the current frame
+     *
+     * @return the FPGA timestamp the frame was recorded at, in seconds
+     *
+     * @since 1.0.6
+     */
+    public double getTimestamp() {
+        return reader.getTimestampMicros(frame) / 1e6;
+    }
+
+    public int getFrame() {
+        return frame;
+    }
+
+    public LogReader getReader() {
+        return reader;
+    }
+
+    private interface Binding {
+        void apply(int frame);
+    }
+}
@@ -0,0 +1,42 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+package bhs.devilbotz.utils.log;
+
+/**
+ * A set of sensor inputs that can be written to a {@link BinaryLog} and fed back from a {@link LogReplay}.
+ * Both methods should use the same signal names so a recorded match can be replayed.
+ * <p>
+ * The inputs are plain public fields on purpose: the IO layer or the replay fills one object every loop
+ * and the log reads it in place, without allocating. Each subsystem keeps its inputs private and hands commands
+ * read-only getters, so nothing outside the subsystem can change a snapshot.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+public interface LoggableInputs {
+    /**
+     * Adds every input to the log
+     *
+     * @param log the log to register with
+     * @param prefix prepended to every signal name, for example "DriveTrain/"
+     */
+    void toLog(BinaryLog log, String prefix);
+
+    /**
+     * Binds every input to the replayed log, so each replayed frame overwrites the inputs
+     *
+     * @param replay the replay to bind to
+     * @param prefix prepended to every signal name, for example "DriveTrain/"
+     */
+    void fromLog(LogReplay replay, String prefix);
+}
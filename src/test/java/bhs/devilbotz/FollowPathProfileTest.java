@@ -0,0 +1,42 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+
+package bhs.devilbotz;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the "Path: New Path (Talon profile)" autonomous routine in a headless simulation, stepped faster than real time.
+ * <p>
+ * The trajectory sets how long the path takes, so the test checks that the points were streamed to the
+ * Talons fast enough that their buffers never ran dry, and that the robot ended up near the end of the path.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+class FollowPathProfileTest {
+    private static final double TIME_LIMIT = AutoSimRunner.DEFAULT_TIME_LIMIT;
+    private static final double MAX_FINAL_TRANSLATION_ERROR_METERS = 0.1;
+
+    @Test
+    void streamsThePathWithoutUnderruns() {
+        RoutineAssertions.assertFinishesWithin("Path: New Path (Talon profile)", TIME_LIMIT);
+
+        assertEquals(0, RoutineAssertions.getPublishedNumber("FollowPathProfile/Underruns"), "Motion profile underruns");
+        double finalError = RoutineAssertions.getPublishedNumber("FollowPathProfile/Final Translation Error m");
+        assertTrue(finalError <= MAX_FINAL_TRANSLATION_ERROR_METERS, "Ended " + finalError + " m from the end of the path");
+    }
+}
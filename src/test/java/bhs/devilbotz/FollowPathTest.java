@@ -0,0 +1,40 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+
+package bhs.devilbotz;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the "Path: New Path" autonomous routine in a headless simulation, stepped faster than real time.
+ * <p>
+ * The trajectory sets how long the path takes, so the test checks how closely RAMSETE tracked it: the
+ * robot has to end up near the end of the trajectory.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+class FollowPathTest {
+    private static final double TIME_LIMIT = AutoSimRunner.DEFAULT_TIME_LIMIT;
+    private static final double MAX_FINAL_TRANSLATION_ERROR_METERS = 0.1;
+
+    @Test
+    void endsAtTheEndOfThePath() {
+        RoutineAssertions.assertFinishesWithin("Path: New Path", TIME_LIMIT);
+
+        double finalError = RoutineAssertions.getPublishedNumber("FollowPath/Final Translation Error m");
+        assertTrue(finalError <= MAX_FINAL_TRANSLATION_ERROR_METERS, "Ended " + finalError + " m from the end of the path");
+    }
+}
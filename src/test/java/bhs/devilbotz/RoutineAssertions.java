@@ -0,0 +1,66 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+
+package bhs.devilbotz;
+
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shared checks for the routine tests.
+ * <p>
+ * Each routine test is its own class because the test task starts a JVM per class, and the HAL can only
+ * be started once per JVM.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+final class RoutineAssertions {
+    private RoutineAssertions() {
+    }
+
+    /**
+     * Runs a routine in a headless simulation and checks that it finished within the time limit
+     *
+     * @param routine the name of the routine in the auto chooser
+     * @param timeLimit the longest the routine may take, in seconds of robot time
+     *
+     * @return the finished run, for further checks
+     *
+     * @since 1.0.6
+     */
+    static AutoSimRunner assertFinishesWithin(String routine, double timeLimit) {
+        AutoSimRunner run = AutoSimRunner.runHeadless(routine, timeLimit);
+
+        assertTrue(run.isFinished(), routine + " did not finish within " + timeLimit + " s");
+        assertTrue(run.getTime() <= timeLimit, routine + " took " + run.getTime() + " s");
+        return run;
+    }
+
+    /**
+     * Gets a number the robot code published to SmartDashboard, and checks that it was published
+     *
+     * @param key the SmartDashboard key
+     *
+     * @return the last published value
+     *
+     * @since 1.0.6
+     */
+    static double getPublishedNumber(String key) {
+        NetworkTableEntry entry = NetworkTableInstance.getDefault().getTable("SmartDashboard").getEntry(key);
+        assertTrue(entry.exists(), key + " was never published");
+        return entry.getDouble(Double.NaN);
+    }
+}
@@ -0,0 +1,33 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+
+package bhs.devilbotz;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the "Shoot & Backwards Auto" autonomous routine in a headless simulation, stepped faster than real time.
+ * <p>
+ * It has to finish within the autonomous period.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+class ShootAndBackwardsAutoTest {
+    private static final double TIME_LIMIT = AutoSimRunner.DEFAULT_TIME_LIMIT;
+
+    @Test
+    void finishesWithinTimeLimit() {
+        RoutineAssertions.assertFinishesWithin("Shoot & Backwards Auto", TIME_LIMIT);
+    }
+}
@@ -0,0 +1,39 @@
+/*-------------------------------------------------------------------------------*/
+/* Copyright (c) 2021-2022 BHS Devilbotz. All Rights Reserved.                   */
+/* Open Source Software - may be modified, commercialized, distributed,          */
+/* sub-licensed and used for private use under the terms of the License.md       */
+/* file in the root of the source code tree.                                     */
+/*                                                                               */
+/* You MUST include the original copyright and license files in any and all      */
+/* revised/modified code. You may NOT remove this header under any circumstance  */
+/* unless explicitly noted                                                       */
+/*-------------------------------------------------------------------------------*/
+
+
+package bhs.devilbotz;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the "Shoot Two Balls" autonomous routine in a headless simulation, stepped faster than real time.
+ * <p>
+ * Every step ends on a sensor event. The limit is below the 4.6 s the old fixed waits took even before
+ * the flywheel spin-up, and both balls have to be counted as shots, so running out the step timeouts
+ * does not pass.
+ *
+ * @author Devilbotz
+ * @version 1.0.0
+ * @since 1.0.6
+ */
+class ShootTwoBallsTest {
+    private static final double TIME_LIMIT = 4.0;
+
+    @Test
+    void shootsBothBallsWithinTimeLimit() {
+        AutoSimRunner run = RoutineAssertions.assertFinishesWithin("Shoot Two Balls", TIME_LIMIT);
+
+        assertEquals(2, run.getShotCount(), "Shots counted by the shooter control loop");
+    }
+}